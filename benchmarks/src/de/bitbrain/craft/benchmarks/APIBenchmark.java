@@ -0,0 +1,105 @@
+/*
+ * Craft - Crafting game for Android, PC and Browser.
+ * Copyright (C) 2014 Miguel Gonzalez
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+
+package de.bitbrain.craft.benchmarks;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.google.inject.Injector;
+
+import de.bitbrain.craft.audio.SoundType;
+import de.bitbrain.craft.core.API;
+import de.bitbrain.craft.core.AsyncAPI;
+import de.bitbrain.craft.core.ItemBag;
+import de.bitbrain.craft.core.ItemId;
+import de.bitbrain.craft.migration.DataMigrator;
+import de.bitbrain.craft.models.Item;
+import de.bitbrain.craft.models.Player;
+import de.bitbrain.craft.models.Profession;
+import de.bitbrain.craft.models.SoundConfig;
+
+/**
+ * Measures the API calls which are made while playing, on a migrated database
+ *
+ * @author Miguel Gonzalez <miguel-gonzalez@gmx.de>
+ * @since 1.0
+ * @version 1.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class APIBenchmark {
+
+  private API api;
+
+  private int playerId;
+
+  private Item mercury;
+
+  @Setup(Level.Trial)
+  public void setup() throws InterruptedException, ExecutionException {
+    Injector injector = Benchmarks.createInjector();
+    injector.getInstance(DataMigrator.class).migrate();
+    api = injector.getInstance(API.class);
+    playerId = Player.getCurrent().getId();
+    Profession.current = Profession.ALCHEMIST;
+    // Writes run on the database thread
+    AsyncAPI asyncApi = injector.getInstance(AsyncAPI.class);
+    asyncApi.learnRecipe(Player.getCurrent(), ItemId.MERCURY).get();
+    asyncApi.applyItemSound(ItemId.MERCURY, "drop.ogg", SoundType.DROP, 1f).get();
+    mercury = api.getItem(ItemId.MERCURY);
+  }
+
+  @Benchmark
+  public boolean addRemoveItem() {
+    api.addItem(playerId, ItemId.SULFUR, 1);
+    return api.removeItem(playerId, ItemId.SULFUR, 1);
+  }
+
+  @Benchmark
+  public boolean canCraft() {
+    return api.canCraft(ItemId.MERCURY);
+  }
+
+  @Benchmark
+  public ItemBag findIngredients() {
+    return api.findIngredients(mercury);
+  }
+
+  @Benchmark
+  public SoundConfig getItemSoundConfig() {
+    return api.getItemSoundConfig(ItemId.MERCURY, SoundType.DROP);
+  }
+}
@@ -0,0 +1,73 @@
+/*
+ * Craft - Crafting game for Android, PC and Browser.
+ * Copyright (C) 2014 Miguel Gonzalez
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+
+package de.bitbrain.craft.benchmarks;
+
+import com.google.inject.AbstractModule;
+import com.google.inject.Provides;
+import com.google.inject.Scopes;
+import com.google.inject.Singleton;
+
+import de.bitbrain.craft.db.DriverProfile;
+import de.bitbrain.craft.db.DriverProvider;
+import de.bitbrain.craft.db.PreparedQueries;
+import de.bitbrain.craft.db.UnitOfWork;
+import de.bitbrain.craft.events.EventBus;
+import de.bitbrain.craft.events.TypedEventBus;
+import de.bitbrain.craft.inject.PostConstructModule;
+import de.bitbrain.craft.inject.StateScoped;
+import de.bitbrain.craft.migration.DataMigrator;
+import de.bitbrain.jpersis.JPersis;
+
+/**
+ * Provides the persistence layer on an in-memory database, without any screens or graphics
+ *
+ * @author Miguel Gonzalez <miguel-gonzalez@gmx.de>
+ * @since 1.0
+ * @version 1.0
+ */
+public class BenchmarkModule extends AbstractModule {
+
+  @Override
+  protected void configure() {
+    install(PostConstructModule.INSTANCE);
+    // There are no states, the whole benchmark is a single one
+    bindScope(StateScoped.class, Scopes.SINGLETON);
+    bind(EventBus.class).to(TypedEventBus.class);
+    bind(DataMigrator.class);
+  }
+
+  @Provides
+  @Singleton
+  public JPersis provideJPersis() {
+    DriverProvider.setProfile(DriverProfile.MEMORY);
+    DriverProvider.initialize();
+    return new JPersis(DriverProvider.getDriver());
+  }
+
+  @Provides
+  public UnitOfWork provideUnitOfWork() {
+    return DriverProvider.getUnitOfWork();
+  }
+
+  @Provides
+  public PreparedQueries providePreparedQueries() {
+    return DriverProvider.getPreparedQueries();
+  }
+}
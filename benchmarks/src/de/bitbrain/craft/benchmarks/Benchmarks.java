@@ -0,0 +1,60 @@
+/*
+ * Craft - Crafting game for Android, PC and Browser.
+ * Copyright (C) 2014 Miguel Gonzalez
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+
+package de.bitbrain.craft.benchmarks;
+
+import com.badlogic.gdx.Application;
+import com.badlogic.gdx.ApplicationAdapter;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.backends.headless.HeadlessApplication;
+import com.google.inject.Guice;
+import com.google.inject.Injector;
+
+import de.bitbrain.craft.core.APIModule;
+import de.bitbrain.craft.db.DriverProvider;
+
+/**
+ * Shared setup of all benchmarks
+ *
+ * @author Miguel Gonzalez <miguel-gonzalez@gmx.de>
+ * @since 1.0
+ * @version 1.0
+ */
+final class Benchmarks {
+
+  private Benchmarks() {
+  }
+
+  /**
+   * Creates a new injector on an empty in-memory database. A headless application is started on first call, since the
+   * game logs through {@link Gdx#app}.
+   * 
+   * @return new injector
+   */
+  public static synchronized Injector createInjector() {
+    if (Gdx.app == null) {
+      new HeadlessApplication(new ApplicationAdapter() {
+      });
+      Gdx.app.setLogLevel(Application.LOG_ERROR);
+    }
+    // Closing the connection discards the in-memory database, the next connection starts empty
+    DriverProvider.dispose();
+    return Guice.createInjector(new BenchmarkModule(), new APIModule());
+  }
+}
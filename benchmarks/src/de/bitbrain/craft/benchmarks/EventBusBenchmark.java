@@ -0,0 +1,129 @@
+/*
+ * Craft - Crafting game for Android, PC and Browser.
+ * Copyright (C) 2014 Miguel Gonzalez
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+
+package de.bitbrain.craft.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import net.engio.mbassy.listener.Handler;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import de.bitbrain.craft.events.Event.EventType;
+import de.bitbrain.craft.events.EventBus;
+import de.bitbrain.craft.events.EventMetrics;
+import de.bitbrain.craft.events.ItemEvent;
+import de.bitbrain.craft.events.MBassadorEventBus;
+import de.bitbrain.craft.events.MouseEvent;
+import de.bitbrain.craft.events.TypedEventBus;
+
+/**
+ * Publishes mouse move events like the input processor does, to a bus with a typical number of UI subscribers. Half of
+ * the subscribers only listen to item events and have to be skipped.
+ *
+ * @author Miguel Gonzalez <miguel-gonzalez@gmx.de>
+ * @since 1.0
+ * @version 1.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class EventBusBenchmark {
+
+  @Param({ "typed", "measured", "mbassador" })
+  public String bus;
+
+  @Param({ "10", "50" })
+  public int subscribers;
+
+  private EventBus eventBus;
+
+  // Keeps the weakly referenced subscribers alive
+  private Object[] listeners;
+
+  private MouseEvent<Object> event;
+
+  @Setup(Level.Trial)
+  public void setup() {
+    if (bus.equals("typed")) {
+      eventBus = new TypedEventBus();
+    } else if (bus.equals("measured")) {
+      EventMetrics metrics = new EventMetrics();
+      metrics.setEnabled(true);
+      eventBus = new TypedEventBus(metrics);
+    } else {
+      eventBus = new MBassadorEventBus();
+    }
+    listeners = new Object[subscribers];
+    for (int i = 0; i < subscribers; ++i) {
+      listeners[i] = i % 2 == 0 ? new MouseListener() : new ItemListener();
+      eventBus.subscribe(listeners[i]);
+    }
+    event = new MouseEvent<Object>(EventType.MOUSEMOVE, null, 0f, 0f);
+  }
+
+  @Benchmark
+  public void publishMouseMove() {
+    eventBus.fireEvent(event);
+  }
+
+  @Benchmark
+  public void createAndPublishMouseMove() {
+    eventBus.fireEvent(new MouseEvent<Object>(EventType.MOUSEMOVE, null, 1f, 1f));
+  }
+
+  @Benchmark
+  public void obtainAndPublishMouseMove() {
+    eventBus.fireEvent(MouseEvent.obtain(EventType.MOUSEMOVE, null, 1f, 1f));
+  }
+
+  public static class MouseListener {
+
+    public float x;
+
+    @Handler
+    public void onEvent(MouseEvent<?> event) {
+      x += event.getMouseX();
+    }
+  }
+
+  public static class ItemListener {
+
+    public int amount;
+
+    @Handler
+    public void onEvent(ItemEvent event) {
+      amount += event.getAmount();
+    }
+  }
+}
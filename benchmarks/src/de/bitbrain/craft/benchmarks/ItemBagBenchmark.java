@@ -0,0 +1,151 @@
+/*
+ * Craft - Crafting game for Android, PC and Browser.
+ * Copyright (C) 2014 Miguel Gonzalez
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+
+package de.bitbrain.craft.benchmarks;
+
+import java.util.Map.Entry;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import de.bitbrain.craft.core.ItemBag;
+import de.bitbrain.craft.core.ItemId;
+import de.bitbrain.craft.graphics.Icon;
+import de.bitbrain.craft.models.Item;
+import de.bitbrain.craft.models.Item.Rarity;
+
+/**
+ * Compares the ordinal based {@link ItemBag} with the former hash based implementation. Runs without a database.
+ *
+ * @author Miguel Gonzalez <miguel-gonzalez@gmx.de>
+ * @since 1.0
+ * @version 1.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class ItemBagBenchmark {
+
+  private Item[] items;
+
+  private ItemBag bag;
+
+  private HashItemBag hashBag;
+
+  private final SumVisitor visitor = new SumVisitor();
+
+  @Setup(Level.Trial)
+  public void setup() {
+    ItemId[] ids = ItemId.values();
+    items = new Item[ids.length];
+    bag = new ItemBag();
+    hashBag = new HashItemBag();
+    for (int i = 0; i < ids.length; ++i) {
+      items[i] = new Item(ids[i], Icon.EARTH, Rarity.COMMON);
+      bag.add(items[i], i + 1);
+      hashBag.add(items[i], i + 1);
+    }
+  }
+
+  @Benchmark
+  public ItemBag fill() {
+    ItemBag bag = new ItemBag();
+    for (Item item : items) {
+      bag.add(item, 1);
+      bag.add(item, 1);
+    }
+    return bag;
+  }
+
+  @Benchmark
+  public HashItemBag fillHash() {
+    HashItemBag bag = new HashItemBag();
+    for (Item item : items) {
+      bag.add(item, 1);
+      bag.add(item, 1);
+    }
+    return bag;
+  }
+
+  @Benchmark
+  public int getAmount() {
+    int sum = 0;
+    for (Item item : items) {
+      sum += bag.getAmount(item);
+    }
+    return sum;
+  }
+
+  @Benchmark
+  public int getAmountHash() {
+    int sum = 0;
+    for (Item item : items) {
+      sum += hashBag.getAmount(item);
+    }
+    return sum;
+  }
+
+  @Benchmark
+  public int iterate() {
+    int sum = 0;
+    for (Entry<Item, Integer> entry : bag) {
+      sum += entry.getValue();
+    }
+    return sum;
+  }
+
+  @Benchmark
+  public int iterateHash() {
+    int sum = 0;
+    for (Entry<Item, Integer> entry : hashBag) {
+      sum += entry.getValue();
+    }
+    return sum;
+  }
+
+  @Benchmark
+  public int visit() {
+    visitor.sum = 0;
+    bag.forEach(visitor);
+    return visitor.sum;
+  }
+
+  private static class SumVisitor implements ItemBag.Visitor {
+
+    private int sum;
+
+    @Override
+    public void visit(Item item, int amount) {
+      sum += amount;
+    }
+  }
+}
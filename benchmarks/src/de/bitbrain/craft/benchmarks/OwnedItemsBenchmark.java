@@ -0,0 +1,93 @@
+/*
+ * Craft - Crafting game for Android, PC and Browser.
+ * Copyright (C) 2014 Miguel Gonzalez
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+
+package de.bitbrain.craft.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.google.inject.Injector;
+
+import de.bitbrain.craft.core.API;
+import de.bitbrain.craft.core.ItemBag;
+import de.bitbrain.craft.core.ItemId;
+import de.bitbrain.craft.migration.DataMigrator;
+import de.bitbrain.craft.models.Player;
+
+/**
+ * Measures loading the inventory of a player which owns the given number of items. A player owns each item at most
+ * once, so the number is limited by the number of item ids. The cold variant discards all caches before each call and
+ * therefore measures the queries on the datastore.
+ *
+ * @author Miguel Gonzalez <miguel-gonzalez@gmx.de>
+ * @since 1.0
+ * @version 1.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class OwnedItemsBenchmark {
+
+  @Param({ "1", "5", "10" })
+  private int ownedItems;
+
+  private API api;
+
+  private int playerId;
+
+  @Setup(Level.Trial)
+  public void setup() {
+    Injector injector = Benchmarks.createInjector();
+    injector.getInstance(DataMigrator.class).migrate();
+    api = injector.getInstance(API.class);
+    playerId = Player.getCurrent().getId();
+    api.clearItems(playerId);
+    ItemId[] ids = ItemId.values();
+    for (int i = 0; i < Math.min(ownedItems, ids.length); ++i) {
+      api.addItem(playerId, ids[i], 1 + i);
+    }
+    api.flush();
+  }
+
+  @Benchmark
+  public ItemBag getOwnedItems() {
+    return api.getOwnedItems(playerId);
+  }
+
+  @Benchmark
+  public ItemBag getOwnedItemsCold() {
+    api.invalidate();
+    return api.getOwnedItems(playerId);
+  }
+}
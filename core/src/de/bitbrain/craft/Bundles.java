@@ -70,4 +70,8 @@ public final class Bundles {
 
   public static final String MATERIALS = "materials";
   public static final String REWARDS = "rewards";
+
+  public static final String CRAFTABLE_AMOUNT = "craftable_amount";
+  public static final String NOT_CRAFTABLE = "not_craftable";
+  public static final String CRAFTABLE_INFINITE = "craftable_infinite";
 }
@@ -22,6 +22,12 @@ package de.bitbrain.craft;
 import com.badlogic.gdx.Gdx;
 import com.google.inject.Inject;
 
+import de.bitbrain.craft.core.API;
+import de.bitbrain.craft.db.DatabaseExecutor;
+import de.bitbrain.craft.db.DriverProvider;
+import de.bitbrain.craft.db.MapperMetrics;
+import de.bitbrain.craft.events.EventMetrics;
+import de.bitbrain.craft.events.TypedEventBus;
 import de.bitbrain.craft.screens.LoadingScreen;
 
 /**
@@ -36,15 +42,41 @@ public class CraftGame extends GuiceGame {
   @Inject
   private LoadingScreen screen;
 
+  @Inject
+  private API api;
+
+  @Inject
+  private DatabaseExecutor database;
+
+  @Inject
+  private MapperMetrics metrics;
+
+  @Inject
+  private EventMetrics eventMetrics;
+
   @Override
   public void create() {
     Gdx.app.setLogLevel(Settings.LOGLEVEL);
     Gdx.app.log("INFO", "Craft v. " + Settings.VERSION + " (" + Settings.PHASE + ")");
+    // Buses of all states are created on this thread
+    TypedEventBus.bindRenderThread();
     setScreen(screen);
   }
 
+  @Override
+  public void pause() {
+    super.pause();
+    api.flush();
+  }
+
   @Override
   public void dispose() {
+    // Pending changes are written by the database thread before it stops
+    api.flush();
+    database.shutdown();
+    metrics.dump();
+    eventMetrics.dump();
+    DriverProvider.dispose();
     SharedAssetManager.dispose();
   }
 }
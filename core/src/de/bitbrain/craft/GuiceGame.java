@@ -24,6 +24,8 @@ import com.badlogic.gdx.Screen;
 import com.google.inject.Inject;
 import com.google.inject.name.Named;
 
+import de.bitbrain.craft.events.EventBus;
+import de.bitbrain.craft.events.StateEventBus;
 import de.bitbrain.craft.inject.SharedInjector;
 import de.bitbrain.craft.inject.StateScope;
 
@@ -42,6 +44,9 @@ public abstract class GuiceGame extends Game {
   @Named("stateScope")
   StateScope scope;
 
+  @Inject
+  StateEventBus stateEventBus;
+
   public GuiceGame() {
     current = null;
   }
@@ -57,6 +62,8 @@ public abstract class GuiceGame extends Game {
       current.dispose();
     }
     scope.enter(screenClass);
+    // Other threads can only reach the bus of this state through the shared one
+    stateEventBus.bind(SharedInjector.get().getInstance(EventBus.class));
     Screen screen = SharedInjector.get().getInstance(screenClass);
     super.setScreen(screen);
     current = screen;
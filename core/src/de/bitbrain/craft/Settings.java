@@ -40,5 +40,17 @@ public final class Settings {
   public static final String DIR_DATA = ".craft/";
   public static final String DATABASE = "game.db";
 
+  // Interval in seconds in which pending changes are written to the database
+  public static final int DB_FLUSH_INTERVAL = 3;
+
+  // Maximum number of pending tasks of the database thread
+  public static final int DB_QUEUE_SIZE = 256;
+
+  // Maximum number of queued events which are fired per frame
+  public static final int EVENTS_PER_FRAME = 128;
+
+  // Handlers which take longer than this many milliseconds are logged
+  public static final int SLOW_HANDLER_MILLIS = 4;
+
   public static final int LOGLEVEL = Application.LOG_DEBUG;
 }
\ No newline at end of file
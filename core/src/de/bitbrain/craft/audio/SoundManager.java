@@ -74,7 +74,7 @@ public class SoundManager implements Disposable {
           assetManager.load(file, Sound.class);
           assetManager.finishLoading();
           Sound sound = assetManager.get(file, Sound.class);
-          eventBus.fireEvent(new SoundPlayEvent(sound, volume, pitch, pan));
+          eventBus.postEvent(new SoundPlayEvent(sound, volume, pitch, pan));
         }
       });
     } else {
@@ -88,11 +88,7 @@ public class SoundManager implements Disposable {
 
   @Handler
   public void onDeferredSoundPlay(SoundPlayEvent event) {
-    Sound sound = event.getModel();
-    Float volume = (Float) event.getParam(SoundPlayEvent.VOLUME);
-    Float pitch = (Float) event.getParam(SoundPlayEvent.PITCH);
-    Float pan = (Float) event.getParam(SoundPlayEvent.PAN);
-    sound.play(volume, pitch, pan);
+    event.getModel().play(event.getVolume(), event.getPitch(), event.getPan());
   }
 
   @Override
@@ -21,6 +21,7 @@ package de.bitbrain.craft.core;
 
 import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 import de.bitbrain.craft.audio.SoundType;
 import de.bitbrain.craft.core.RecipeDataBuilder.RecipeData;
@@ -34,7 +35,9 @@ import de.bitbrain.craft.models.Recipe;
 import de.bitbrain.craft.models.SoundConfig;
 
 /**
- * Overall craft API interface
+ * Overall craft API interface. Methods which write to the datastore directly (createPlayer, registerItem(s),
+ * registerRecipe(s), learnRecipe and applyItemSound) have to be called on the database thread, e.g. by migrations.
+ * Other threads use {@link AsyncAPI} instead, so the render loop never waits for the datastore.
  *
  * @author Miguel Gonzalez <miguel-gonzalez@gmx.de>
  * @since 1.0
@@ -92,6 +95,17 @@ public interface API {
    */
   Item addItem(int playerId, ItemId id, int amount);
 
+  /**
+   * Adds multiple different items at once
+   * 
+   * @param playerId
+   *          id of the player
+   * @param amounts
+   *          number of items to add by item
+   * @return all added items
+   */
+  ItemBag addItems(int playerId, Map<ItemId, Integer> amounts);
+
   /**
    * Removes the item from a player
    * 
@@ -168,6 +182,14 @@ public interface API {
    */
   void registerItem(ItemId itemId, Icon icon, Rarity rarity, int level);
 
+  /**
+   * Registers multiple items at once. Items which id is already taken are skipped.
+   * 
+   * @param items
+   *          new items
+   */
+  void registerItems(Collection<Item> items);
+
   /**
    * Applies a new sound type to an existing item
    * 
@@ -214,6 +236,15 @@ public interface API {
    */
   Recipe registerRecipe(RecipeData data);
 
+  /**
+   * Adds multiple recipes to the system within a single transaction
+   * 
+   * @param data
+   *          recipe data
+   * @return registered recipes. Is empty if the recipes could not be registered
+   */
+  List<Recipe> registerRecipes(Collection<RecipeData> data);
+
   /**
    * Teach the player to craft the given item
    * 
@@ -298,6 +329,17 @@ public interface API {
    */
   List<Recipe> getRecipesByIngredients(Collection<Item> items);
 
+  /**
+   * Writes all pending changes to the datastore on the database thread. Blocks until everything is written.
+   */
+  void flush();
+
+  /**
+   * Discards all cached data, it is loaded from the datastore again on next access. Changes which have not been flushed
+   * yet are lost.
+   */
+  void invalidate();
+
   /**
    * Is thrown as an API error occurs
    *
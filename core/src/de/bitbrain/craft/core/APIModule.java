@@ -38,6 +38,8 @@ public class APIModule extends AbstractModule {
   @Override
   protected void configure() {
     bind(API.class).to(SimpleAPI.class).asEagerSingleton();
+    bind(AsyncAPI.class).to(SimpleAsyncAPI.class).asEagerSingleton();
+    bind(CraftingPlanner.class);
   }
 
 }
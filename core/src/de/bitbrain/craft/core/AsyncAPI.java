@@ -0,0 +1,132 @@
+/*
+ * Craft - Crafting game for Android, PC and Browser.
+ * Copyright (C) 2014 Miguel Gonzalez
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+
+package de.bitbrain.craft.core;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import com.google.common.util.concurrent.ListenableFuture;
+
+import de.bitbrain.craft.audio.SoundType;
+import de.bitbrain.craft.core.RecipeDataBuilder.RecipeData;
+import de.bitbrain.craft.models.Item;
+import de.bitbrain.craft.models.Player;
+import de.bitbrain.craft.models.Profession;
+import de.bitbrain.craft.models.Progress;
+import de.bitbrain.craft.models.Recipe;
+
+/**
+ * Asynchronous variant of the {@link API}. All calls run in submission order on the database thread, see
+ * {@link de.bitbrain.craft.db.DatabaseExecutor}, so calling them never blocks the render loop. A call therefore always
+ * sees the changes of previously submitted calls.
+ * <p>
+ * Lookups which are answered from memory (items, recipes, learned recipes, sounds and progress) are not part of this
+ * interface. Call {@link #preload()} once, afterwards they can be used on {@link API} from any thread without
+ * touching the datastore.
+ *
+ * @author Miguel Gonzalez <miguel-gonzalez@gmx.de>
+ * @since 1.0
+ * @version 1.0
+ */
+public interface AsyncAPI {
+
+  /**
+   * Loads all cached data of the current player into memory
+   */
+  ListenableFuture<?> preload();
+
+  /**
+   * @see API#getFirstPlayer()
+   */
+  ListenableFuture<Player> getFirstPlayer();
+
+  /**
+   * @see API#createPlayer(String)
+   */
+  ListenableFuture<Player> createPlayer(String name);
+
+  /**
+   * @see API#getOwnedItems(int)
+   */
+  ListenableFuture<ItemBag> getOwnedItems(int playerId);
+
+  /**
+   * @see API#addItem(int, ItemId, int)
+   */
+  ListenableFuture<Item> addItem(int playerId, ItemId id, int amount);
+
+  /**
+   * @see API#addItems(int, Map)
+   */
+  ListenableFuture<ItemBag> addItems(int playerId, Map<ItemId, Integer> amounts);
+
+  /**
+   * @see API#removeItem(int, ItemId, int)
+   */
+  ListenableFuture<Boolean> removeItem(int playerId, ItemId id, int amount);
+
+  /**
+   * @see API#removeItem(int, ItemId)
+   */
+  ListenableFuture<?> removeItem(int playerId, ItemId id);
+
+  /**
+   * @see API#clearItems(int)
+   */
+  ListenableFuture<?> clearItems(int playerId);
+
+  /**
+   * @see API#registerItems(Collection)
+   */
+  ListenableFuture<?> registerItems(Collection<Item> items);
+
+  /**
+   * @see API#registerRecipes(Collection)
+   */
+  ListenableFuture<List<Recipe>> registerRecipes(Collection<RecipeData> data);
+
+  /**
+   * @see API#learnRecipe(Player, ItemId)
+   */
+  ListenableFuture<Boolean> learnRecipe(Player player, ItemId id);
+
+  /**
+   * @see API#applyItemSound(ItemId, String, SoundType, float)
+   */
+  ListenableFuture<?> applyItemSound(ItemId itemId, String deferredSoundId, SoundType type, float pitch);
+
+  /**
+   * @see API#addXp(Profession, int)
+   */
+  ListenableFuture<Progress> addXp(Profession profession, int xp);
+
+  /**
+   * @see API#setXp(Profession, int)
+   */
+  ListenableFuture<Progress> setXp(Profession profession, int xp);
+
+  /**
+   * Writes all pending changes to the datastore
+   * 
+   * @see API#flush()
+   */
+  ListenableFuture<?> flush();
+}
@@ -0,0 +1,405 @@
+/*
+ * Craft - Crafting game for Android, PC and Browser.
+ * Copyright (C) 2014 Miguel Gonzalez
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+
+package de.bitbrain.craft.core;
+
+import java.util.Arrays;
+
+import net.engio.mbassy.listener.Handler;
+
+import com.google.inject.Inject;
+
+import de.bitbrain.craft.events.EventBus;
+import de.bitbrain.craft.events.ItemBatchEvent;
+import de.bitbrain.craft.events.ItemEvent;
+import de.bitbrain.craft.events.RecipeEvent;
+import de.bitbrain.craft.inject.PostConstruct;
+import de.bitbrain.craft.inject.StateScoped;
+import de.bitbrain.craft.models.Item;
+import de.bitbrain.craft.models.Player;
+import de.bitbrain.craft.models.Recipe;
+
+/**
+ * Plans crafting over multiple recipe levels. Missing ingredients are crafted from their own recipes, e.g. MERCURY
+ * requires PHIOLE_1 which itself is crafted from EARTH and FIRE. Owned items are used first, surplus of a craft is
+ * kept for other ingredients.
+ * <p>
+ * The recipe structure is loaded once, the inventory and all computed amounts are cached until the next item event, the
+ * learned recipes until the next recipe event. Only recipes which the player can craft in the current profession are
+ * resolved, all other items are treated as base materials. Recipes are visited in topological order, so every item is
+ * resolved once per plan, no matter how many recipes share it. Items which would require themselves are treated as
+ * base materials.
+ *
+ * @author Miguel Gonzalez <miguel-gonzalez@gmx.de>
+ * @since 1.0
+ * @version 1.0
+ */
+@StateScoped
+public class CraftingPlanner {
+
+  private static final int UNKNOWN = -2;
+
+  private static final byte VISITING = 1;
+
+  private static final byte VISITED = 2;
+
+  private static final ItemId[] IDS = ItemId.values();
+
+  @Inject
+  private API api;
+
+  @Inject
+  private EventBus eventBus;
+
+  // Recipe structure by item ordinal
+  private Recipe[] recipes;
+
+  private int[][] ingredientIds;
+
+  private int[][] ingredientAmounts;
+
+  // Owned amounts by item ordinal, null if not loaded yet
+  private long[] owned;
+
+  // Items which are owned infinitely or crafted only from such items
+  private Boolean[] unlimited;
+
+  private int[] craftable;
+
+  // Learned state by item ordinal, null if not checked yet
+  private Boolean[] learned;
+
+  // Item ordinals of all items, every item comes after its ingredients. Is null if not sorted yet.
+  private int[] order;
+
+  // Items whose recipe would require the item itself
+  private boolean[] cyclic;
+
+  private final ItemBag.Visitor inventoryLoader = new ItemBag.Visitor() {
+    @Override
+    public void visit(Item item, int amount) {
+      owned[item.getId().ordinal()] = amount;
+    }
+  };
+
+  @PostConstruct
+  public void init() {
+    unlimited = new Boolean[IDS.length];
+    craftable = new int[IDS.length];
+    learned = new Boolean[IDS.length];
+    cyclic = new boolean[IDS.length];
+    invalidate();
+    eventBus.subscribe(this);
+  }
+
+  @Handler
+  public void onEvent(ItemEvent event) {
+    switch (event.getType()) {
+      case ADD:
+      case REMOVE:
+        invalidateAmounts();
+        break;
+      default:
+        break;
+    }
+  }
+
+  @Handler
+  public void onEvent(ItemBatchEvent event) {
+    invalidateAmounts();
+  }
+
+  @Handler
+  public void onEvent(RecipeEvent event) {
+    invalidate();
+  }
+
+  /**
+   * Computes how often an item can be crafted from the current inventory
+   * 
+   * @param id
+   *          item to craft
+   * @return number of items, {@link Item#INFINITE_AMOUNT} if the item can be crafted infinitely
+   */
+  public int getCraftableAmount(ItemId id) {
+    int index = id.ordinal();
+    if (craftable[index] == UNKNOWN) {
+      craftable[index] = computeCraftable(index);
+    }
+    return craftable[index];
+  }
+
+  /**
+   * Resolves all base materials which are required to craft an item, regardless of the inventory
+   * 
+   * @param id
+   *          item to craft
+   * @param amount
+   *          number of items to craft
+   * @return base materials with the required amount
+   */
+  public ItemBag getBaseMaterials(ItemId id, int amount) {
+    return resolve(id, amount, new long[IDS.length]);
+  }
+
+  /**
+   * Resolves all base materials which are missing to craft an item from the current inventory
+   * 
+   * @param id
+   *          item to craft
+   * @param amount
+   *          number of items to craft
+   * @return missing base materials with the missing amount. Is empty if the item can be crafted.
+   */
+  public ItemBag getMissingMaterials(ItemId id, int amount) {
+    return resolve(id, amount, inventory().clone());
+  }
+
+  /**
+   * Drops the cached inventory, the learned recipes and all computed amounts
+   */
+  public void invalidate() {
+    Arrays.fill(learned, null);
+    order = null;
+    invalidateAmounts();
+  }
+
+  private void invalidateAmounts() {
+    owned = null;
+    Arrays.fill(unlimited, null);
+    Arrays.fill(craftable, UNKNOWN);
+  }
+
+  private int computeCraftable(int index) {
+    if (recipe(index) == null) {
+      return 0;
+    }
+    boolean infinite = true;
+    for (int ingredient : ingredientIds[index]) {
+      infinite &= isUnlimited(ingredient);
+    }
+    if (infinite) {
+      return Item.INFINITE_AMOUNT;
+    }
+    // Owned items of the target do not count as crafted
+    long[] inventory = inventory().clone();
+    inventory[index] = 0;
+    // Find an upper bound first, then search for the maximum in between
+    int low = 0;
+    int high = 1;
+    while (high < Integer.MAX_VALUE / 2 && provide(index, high, inventory.clone(), null)) {
+      low = high;
+      high *= 2;
+    }
+    while (high - low > 1) {
+      int middle = (low + high) >>> 1;
+      if (provide(index, middle, inventory.clone(), null)) {
+        low = middle;
+      } else {
+        high = middle;
+      }
+    }
+    return low;
+  }
+
+  private ItemBag resolve(ItemId id, int amount, long[] stock) {
+    long[] missing = new long[IDS.length];
+    int index = id.ordinal();
+    if (recipe(index) != null) {
+      // Crafting the item itself, do not take it from the inventory
+      stock[index] = 0;
+    }
+    provide(index, amount, stock, missing);
+    ItemBag bag = new ItemBag();
+    for (int i = 0; i < missing.length; ++i) {
+      if (missing[i] > 0) {
+        bag.add(api.getItem(IDS[i]), (int) Math.min(missing[i], Integer.MAX_VALUE));
+      }
+    }
+    return bag;
+  }
+
+  /**
+   * Takes the given amount of an item from the stock and crafts what is missing. Missing base materials are added to
+   * the missing array, if present. The demand of all consumers is collected before an item is resolved, so the surplus
+   * of a craft is kept for other ingredients.
+   * 
+   * @return true if the amount could be provided
+   */
+  private boolean provide(int index, long amount, long[] stock, long[] missing) {
+    int[] sorted = order();
+    long[] required = new long[IDS.length];
+    required[index] = amount;
+    boolean success = true;
+    // Consumers come first
+    for (int i = sorted.length - 1; i >= 0; --i) {
+      int current = sorted[i];
+      long demand = required[current];
+      if (demand == 0 || stock[current] == Item.INFINITE_AMOUNT) {
+        continue;
+      }
+      if (stock[current] >= demand) {
+        stock[current] -= demand;
+        continue;
+      }
+      long shortfall = demand - stock[current];
+      stock[current] = 0;
+      Recipe recipe = recipe(current);
+      if (recipe == null) {
+        if (missing == null) {
+          return false;
+        }
+        missing[current] += shortfall;
+        success = false;
+        continue;
+      }
+      int produced = Math.max(1, recipe.getAmount());
+      long crafts = (shortfall + produced - 1) / produced;
+      int[] ids = ingredientIds[current];
+      for (int j = 0; j < ids.length; ++j) {
+        required[ids[j]] += crafts * ingredientAmounts[current][j];
+      }
+      // Keep the surplus for other ingredients
+      stock[current] += crafts * produced - shortfall;
+    }
+    return success;
+  }
+
+  private boolean isUnlimited(int index) {
+    if (unlimited[index] == null) {
+      long[] inventory = inventory();
+      // Ingredients come first, their state is known when an item is visited
+      for (int current : order()) {
+        boolean result = inventory[current] == Item.INFINITE_AMOUNT;
+        if (!result && recipe(current) != null) {
+          result = true;
+          for (int ingredient : ingredientIds[current]) {
+            result &= unlimited[ingredient];
+          }
+        }
+        unlimited[current] = result;
+      }
+    }
+    return unlimited[index];
+  }
+
+  private long[] inventory() {
+    if (owned == null) {
+      owned = new long[IDS.length];
+      api.getOwnedItems(Player.getCurrent().getId()).forEach(inventoryLoader);
+    }
+    return owned;
+  }
+
+  private Recipe recipe(int index) {
+    order();
+    return !cyclic[index] ? learnedRecipe(index) : null;
+  }
+
+  private Recipe learnedRecipe(int index) {
+    if (recipes == null) {
+      loadRecipes();
+    }
+    if (learned[index] == null) {
+      learned[index] = recipes[index] != null && api.canCraft(IDS[index]);
+    }
+    return learned[index] ? recipes[index] : null;
+  }
+
+  private int[] order() {
+    if (order == null) {
+      int[] sorted = new int[IDS.length];
+      Arrays.fill(cyclic, false);
+      byte[] states = new byte[IDS.length];
+      int[] path = new int[IDS.length];
+      int position = 0;
+      for (int index = 0; index < IDS.length; ++index) {
+        position = sort(index, sorted, states, path, 0, position);
+      }
+      order = sorted;
+    }
+    return order;
+  }
+
+  /**
+   * Depth first search over the learned recipes, appends every item after its ingredients
+   * 
+   * @return next free position of the order
+   */
+  private int sort(int index, int[] sorted, byte[] states, int[] path, int depth, int position) {
+    if (states[index] == VISITED) {
+      return position;
+    }
+    if (states[index] == VISITING) {
+      // Every item on the path since the first visit requires itself
+      for (int i = depth - 1; i >= 0 && path[i] != index; --i) {
+        cyclic[path[i]] = true;
+      }
+      cyclic[index] = true;
+      return position;
+    }
+    states[index] = VISITING;
+    path[depth] = index;
+    if (learnedRecipe(index) != null) {
+      for (int ingredient : ingredientIds[index]) {
+        position = sort(ingredient, sorted, states, path, depth + 1, position);
+      }
+    }
+    states[index] = VISITED;
+    sorted[position] = index;
+    return position + 1;
+  }
+
+  private void loadRecipes() {
+    recipes = new Recipe[IDS.length];
+    ingredientIds = new int[IDS.length][];
+    ingredientAmounts = new int[IDS.length][];
+    for (ItemId id : IDS) {
+      int index = id.ordinal();
+      Item item = api.getItem(id);
+      recipes[index] = item != null ? api.findRecipe(id) : null;
+      ItemBag ingredients = recipes[index] != null ? api.findIngredients(item) : new ItemBag();
+      IngredientCollector collector = new IngredientCollector(ingredients.size());
+      ingredients.forEach(collector);
+      ingredientIds[index] = collector.ids;
+      ingredientAmounts[index] = collector.amounts;
+    }
+  }
+
+  private static class IngredientCollector implements ItemBag.Visitor {
+
+    private final int[] ids;
+
+    private final int[] amounts;
+
+    private int position;
+
+    IngredientCollector(int size) {
+      ids = new int[size];
+      amounts = new int[size];
+    }
+
+    @Override
+    public void visit(Item item, int amount) {
+      ids[position] = item.getId().ordinal();
+      amounts[position] = amount;
+      position++;
+    }
+  }
+}
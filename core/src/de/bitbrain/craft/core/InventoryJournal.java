@@ -0,0 +1,336 @@
+/*
+ * Craft - Crafting game for Android, PC and Browser.
+ * Copyright (C) 2014 Miguel Gonzalez
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+
+package de.bitbrain.craft.core;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+
+import com.badlogic.gdx.Gdx;
+
+import de.bitbrain.craft.db.OwnedItemMapper;
+import de.bitbrain.craft.db.UnitOfWork;
+import de.bitbrain.craft.models.OwnedItem;
+
+/**
+ * Write-behind journal for owned items. Inventory changes are applied to an in-memory view immediately and coalesced
+ * per player and item. Pending changes are written to the datastore within a single transaction when {@link #flush()}
+ * is called.
+ * <p>
+ * Players are loaded without holding the lock of the journal, since the driver holds its own lock during a query.
+ *
+ * @author Miguel Gonzalez <miguel-gonzalez@gmx.de>
+ * @since 1.0
+ * @version 1.0
+ */
+class InventoryJournal {
+
+  private final OwnedItemMapper mapper;
+
+  private final UnitOfWork unitOfWork;
+
+  // Current amounts of all loaded players
+  private final Map<Integer, Map<ItemId, Integer>> amounts;
+
+  // Rows as they are known to the datastore
+  private final Map<Integer, Map<ItemId, OwnedItem>> rows;
+
+  // Items which changed since the last flush
+  private final Map<Integer, Set<ItemId>> dirty;
+
+  private final Object flushLock = new Object();
+
+  // Is increased on invalidation, loaded players of an older version are discarded
+  private int version;
+
+  public InventoryJournal(OwnedItemMapper mapper, UnitOfWork unitOfWork) {
+    this.mapper = mapper;
+    this.unitOfWork = unitOfWork;
+    amounts = new HashMap<Integer, Map<ItemId, Integer>>();
+    rows = new HashMap<Integer, Map<ItemId, OwnedItem>>();
+    dirty = new HashMap<Integer, Set<ItemId>>();
+  }
+
+  /**
+   * Provides a snapshot of all items owned by the player
+   * 
+   * @param playerId
+   *          id of the player
+   * @return item amounts by item id
+   */
+  public Map<ItemId, Integer> getAll(int playerId) {
+    for (;;) {
+      Map<ItemId, Integer> items = load(playerId);
+      synchronized (this) {
+        if (items == amounts.get(playerId)) {
+          return new EnumMap<ItemId, Integer>(items);
+        }
+      }
+    }
+  }
+
+  /**
+   * Returns the owned amount of an item or null if the item is not owned
+   * 
+   * @param playerId
+   *          id of the player
+   * @param id
+   *          id of the item
+   * @return owned amount
+   */
+  public Integer get(int playerId, ItemId id) {
+    for (;;) {
+      Map<ItemId, Integer> items = load(playerId);
+      synchronized (this) {
+        if (items == amounts.get(playerId)) {
+          return items.get(id);
+        }
+      }
+    }
+  }
+
+  /**
+   * Sets the owned amount of an item
+   * 
+   * @param playerId
+   *          id of the player
+   * @param id
+   *          id of the item
+   * @param amount
+   *          new amount
+   */
+  public void set(int playerId, ItemId id, int amount) {
+    for (;;) {
+      Map<ItemId, Integer> items = load(playerId);
+      synchronized (this) {
+        if (items == amounts.get(playerId)) {
+          items.put(id, amount);
+          markDirty(playerId, id);
+          return;
+        }
+      }
+    }
+  }
+
+  /**
+   * Removes an item completely from the player
+   * 
+   * @param playerId
+   *          id of the player
+   * @param id
+   *          id of the item
+   * @return previous amount or null if the item has not been owned
+   */
+  public Integer remove(int playerId, ItemId id) {
+    for (;;) {
+      Map<ItemId, Integer> items = load(playerId);
+      synchronized (this) {
+        if (items == amounts.get(playerId)) {
+          Integer amount = items.remove(id);
+          if (amount != null) {
+            markDirty(playerId, id);
+          }
+          return amount;
+        }
+      }
+    }
+  }
+
+  /**
+   * Removes all items of the player
+   * 
+   * @param playerId
+   *          id of the player
+   * @return removed amounts by item id
+   */
+  public Map<ItemId, Integer> clear(int playerId) {
+    for (;;) {
+      Map<ItemId, Integer> items = load(playerId);
+      synchronized (this) {
+        if (items == amounts.get(playerId)) {
+          Map<ItemId, Integer> removed = new EnumMap<ItemId, Integer>(items);
+          items.clear();
+          for (ItemId id : removed.keySet()) {
+            markDirty(playerId, id);
+          }
+          return removed;
+        }
+      }
+    }
+  }
+
+  /**
+   * Writes all pending changes to the datastore. Blocks until all changes are written. Is only called on the database
+   * thread, see {@link de.bitbrain.craft.db.DatabaseExecutor}.
+   */
+  public void flush() {
+    synchronized (flushLock) {
+      final List<Change> changes = collectChanges();
+      if (changes.isEmpty()) {
+        return;
+      }
+      boolean began = false;
+      try {
+        unitOfWork.begin();
+        began = true;
+        // Within an outer transaction the rows are only known after it has been written
+        unitOfWork.addListener(new UnitOfWork.Listener() {
+          @Override
+          public void onEnd(boolean committed) {
+            complete(changes, committed);
+          }
+        });
+        try {
+          for (Change change : changes) {
+            write(change);
+          }
+        } catch (RuntimeException e) {
+          unitOfWork.rollback();
+          throw e;
+        }
+        unitOfWork.commit();
+      } catch (RuntimeException e) {
+        Gdx.app.error("ERROR", "Unable to write " + changes.size() + " inventory changes.", e);
+        if (!began) {
+          complete(changes, false);
+        }
+      }
+    }
+  }
+
+  /**
+   * Discards all loaded players and their pending changes. They are loaded from the datastore again on next access.
+   */
+  public void invalidate() {
+    synchronized (flushLock) {
+      synchronized (this) {
+        amounts.clear();
+        rows.clear();
+        dirty.clear();
+        ++version;
+      }
+    }
+  }
+
+  private synchronized List<Change> collectChanges() {
+    List<Change> changes = new ArrayList<Change>();
+    for (Entry<Integer, Set<ItemId>> entry : dirty.entrySet()) {
+      int playerId = entry.getKey();
+      for (ItemId id : entry.getValue()) {
+        Change change = new Change();
+        change.playerId = playerId;
+        change.itemId = id;
+        change.amount = amounts.get(playerId).get(id);
+        change.row = rows.get(playerId).get(id);
+        changes.add(change);
+      }
+    }
+    dirty.clear();
+    return changes;
+  }
+
+  private void write(Change change) {
+    OwnedItem row = change.row;
+    if (change.amount == null) {
+      if (row != null) {
+        mapper.delete(row);
+      }
+    } else if (row == null) {
+      change.row = new OwnedItem(change.itemId, change.playerId, change.amount);
+      mapper.insert(change.row);
+    } else if (row.getAmount() != change.amount) {
+      // Work on a copy, the known row must stay untouched if the transaction fails
+      change.row = new OwnedItem(change.itemId, change.playerId, change.amount);
+      change.row.setId(row.getId());
+      mapper.update(change.row);
+    }
+  }
+
+  private synchronized void complete(List<Change> changes, boolean success) {
+    for (Change change : changes) {
+      if (!rows.containsKey(change.playerId)) {
+        // Has been invalidated meanwhile
+        continue;
+      } else if (!success) {
+        markDirty(change.playerId, change.itemId);
+      } else if (change.amount == null) {
+        rows.get(change.playerId).remove(change.itemId);
+      } else {
+        rows.get(change.playerId).put(change.itemId, change.row);
+      }
+    }
+  }
+
+  // Returns the amounts of the player, the caller has to check under the lock that they are still current
+  private Map<ItemId, Integer> load(int playerId) {
+    for (;;) {
+      int current;
+      synchronized (this) {
+        Map<ItemId, Integer> items = amounts.get(playerId);
+        if (items != null) {
+          return items;
+        }
+        current = version;
+      }
+      Collection<OwnedItem> found = mapper.findAllByPlayerId(playerId);
+      synchronized (this) {
+        if (current == version && !amounts.containsKey(playerId)) {
+          Map<ItemId, Integer> items = new EnumMap<ItemId, Integer>(ItemId.class);
+          Map<ItemId, OwnedItem> persisted = new EnumMap<ItemId, OwnedItem>(ItemId.class);
+          for (OwnedItem owned : found) {
+            items.put(owned.getItemId(), owned.getAmount());
+            persisted.put(owned.getItemId(), owned);
+          }
+          amounts.put(playerId, items);
+          rows.put(playerId, persisted);
+          return items;
+        }
+      }
+    }
+  }
+
+  private void markDirty(int playerId, ItemId id) {
+    Set<ItemId> ids = dirty.get(playerId);
+    if (ids == null) {
+      ids = EnumSet.noneOf(ItemId.class);
+      dirty.put(playerId, ids);
+    }
+    ids.add(id);
+  }
+
+  private static class Change {
+
+    int playerId;
+
+    ItemId itemId;
+
+    // New amount. Is null if the item has been removed
+    Integer amount;
+
+    // Persisted row, is replaced by the written row on flush. Is null if the item is not stored yet
+    OwnedItem row;
+  }
+}
@@ -19,15 +19,15 @@
 
 package de.bitbrain.craft.core;
 
-import java.util.HashMap;
+import java.util.AbstractMap.SimpleImmutableEntry;
 import java.util.Iterator;
-import java.util.Map;
 import java.util.Map.Entry;
+import java.util.NoSuchElementException;
 
 import de.bitbrain.craft.models.Item;
 
 /**
- * Bag which contains items
+ * Bag which contains items. Amounts are stored by item id ordinal, so that no lookup allocates or hashes.
  *
  * @author Miguel Gonzalez <miguel-gonzalez@gmx.de>
  * @since 1.0
@@ -35,48 +35,115 @@ import de.bitbrain.craft.models.Item;
  */
 public class ItemBag implements Iterable<Entry<Item, Integer>> {
 
-  private Map<Item, Integer> items;
+  private static final int CAPACITY = ItemId.values().length;
 
-  private Map<ItemId, Item> itemIds;
+  private final Item[] items;
+
+  private final int[] amounts;
+
+  private int size;
 
   public ItemBag() {
-    items = new HashMap<Item, Integer>();
-    itemIds = new HashMap<ItemId, Item>();
+    items = new Item[CAPACITY];
+    amounts = new int[CAPACITY];
   }
 
-  public void add(Item item, Integer amount) {
-    if (items.containsKey(item)) {
-      Integer currentAmount = items.get(item);
-      items.put(item, currentAmount + amount);
+  public void add(Item item, int amount) {
+    int index = item.getId().ordinal();
+    if (items[index] != null) {
+      amounts[index] += amount;
     } else {
-      items.put(item, amount);
-      itemIds.put(item.getId(), item);
+      items[index] = item;
+      amounts[index] = amount;
+      size++;
+    }
+  }
+
+  /**
+   * Iterates over all items without allocating entries
+   * 
+   * @param visitor
+   *          visitor which is called for every item
+   */
+  public void forEach(Visitor visitor) {
+    for (int index = 0; index < CAPACITY; ++index) {
+      if (items[index] != null) {
+        visitor.visit(items[index], amounts[index]);
+      }
     }
   }
 
   @Override
   public Iterator<Entry<Item, Integer>> iterator() {
-    return items.entrySet().iterator();
+    return new EntryIterator();
   }
 
   public int getAmount(Item item) {
-    Integer amount = items.get(item);
-    return amount != null ? amount : 0;
+    return item != null ? getAmount(item.getId()) : 0;
+  }
+
+  public int getAmount(ItemId id) {
+    return amounts[id.ordinal()];
   }
 
   public boolean contains(Item item) {
-    return items.containsKey(item);
+    return item != null && contains(item.getId());
+  }
+
+  public boolean contains(ItemId id) {
+    return items[id.ordinal()] != null;
   }
 
   public int size() {
-    return items.size();
+    return size;
   }
 
   public void clear(ItemId id) {
-    Item item = itemIds.get(id);
-    if (item != null) {
-      items.remove(item);
-      itemIds.remove(id);
+    int index = id.ordinal();
+    if (items[index] != null) {
+      items[index] = null;
+      amounts[index] = 0;
+      size--;
+    }
+  }
+
+  /**
+   * Is called for every item of a bag
+   */
+  public static interface Visitor {
+
+    void visit(Item item, int amount);
+  }
+
+  private class EntryIterator implements Iterator<Entry<Item, Integer>> {
+
+    private int index = skip(0);
+
+    @Override
+    public boolean hasNext() {
+      return index < CAPACITY;
+    }
+
+    @Override
+    public Entry<Item, Integer> next() {
+      if (!hasNext()) {
+        throw new NoSuchElementException();
+      }
+      Entry<Item, Integer> entry = new SimpleImmutableEntry<Item, Integer>(items[index], amounts[index]);
+      index = skip(index + 1);
+      return entry;
+    }
+
+    @Override
+    public void remove() {
+      throw new UnsupportedOperationException();
+    }
+
+    private int skip(int from) {
+      while (from < CAPACITY && items[from] == null) {
+        from++;
+      }
+      return from;
     }
   }
 }
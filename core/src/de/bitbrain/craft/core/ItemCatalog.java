@@ -0,0 +1,161 @@
+/*
+ * Craft - Crafting game for Android, PC and Browser.
+ * Copyright (C) 2014 Miguel Gonzalez
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+
+package de.bitbrain.craft.core;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import de.bitbrain.craft.db.ItemMapper;
+import de.bitbrain.craft.models.Item;
+
+/**
+ * In-memory catalog of all registered items. The catalog is loaded once from the datastore on first access, since the
+ * data source is not available before the game has been loaded. Unknown ids are read through to the datastore and
+ * remembered as missing until the item is registered.
+ * <p>
+ * The datastore is never queried while the catalog is locked. The driver holds its own lock during a query, a
+ * migration on the database thread which holds the driver lock and accesses the catalog would deadlock otherwise.
+ * Results are only published if the catalog has not changed meanwhile.
+ *
+ * @author Miguel Gonzalez <miguel-gonzalez@gmx.de>
+ * @since 1.0
+ * @version 1.0
+ */
+class ItemCatalog {
+
+  private final ItemMapper mapper;
+
+  private final Map<ItemId, Item> items;
+
+  // Ids which are not known to the datastore
+  private final Set<ItemId> missing;
+
+  private boolean loaded;
+
+  // Is increased on every change, query results of an older version are discarded
+  private int version;
+
+  public ItemCatalog(ItemMapper mapper) {
+    this.mapper = mapper;
+    items = new EnumMap<ItemId, Item>(ItemId.class);
+    missing = EnumSet.noneOf(ItemId.class);
+  }
+
+  /**
+   * Returns the item with the given id
+   * 
+   * @param id
+   *          item indicator
+   * @return found item. Is null if nothing can be found
+   */
+  public Item get(ItemId id) {
+    ensureLoaded();
+    int current;
+    synchronized (this) {
+      Item item = items.get(id);
+      if (item != null || missing.contains(id)) {
+        return item;
+      }
+      current = version;
+    }
+    Item item = mapper.findById(id);
+    synchronized (this) {
+      if (current == version) {
+        if (item != null) {
+          items.put(id, item);
+        } else {
+          missing.add(id);
+        }
+      }
+    }
+    return item;
+  }
+
+  /**
+   * Provides all known items
+   * 
+   * @return a collection of all items
+   */
+  public Collection<Item> getAll() {
+    ensureLoaded();
+    synchronized (this) {
+      return new ArrayList<Item>(items.values());
+    }
+  }
+
+  /**
+   * Puts a newly registered item into the catalog
+   * 
+   * @param item
+   *          item to register
+   */
+  public synchronized void put(Item item) {
+    items.put(item.getId(), item);
+    missing.remove(item.getId());
+    ++version;
+  }
+
+  /**
+   * Discards all items, the catalog is loaded again on next access
+   */
+  public synchronized void invalidate() {
+    items.clear();
+    missing.clear();
+    loaded = false;
+    ++version;
+  }
+
+  /**
+   * Reloads the complete catalog from the datastore
+   */
+  public void refresh() {
+    int current;
+    synchronized (this) {
+      current = version;
+    }
+    List<Item> all = new ArrayList<Item>(mapper.findAll());
+    synchronized (this) {
+      if (current == version) {
+        items.clear();
+        missing.clear();
+        for (Item item : all) {
+          items.put(item.getId(), item);
+        }
+        loaded = true;
+      }
+    }
+  }
+
+  private void ensureLoaded() {
+    // Loads again if the catalog changed during the query
+    while (!isLoaded()) {
+      refresh();
+    }
+  }
+
+  private synchronized boolean isLoaded() {
+    return loaded;
+  }
+}
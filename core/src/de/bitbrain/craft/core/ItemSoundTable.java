@@ -0,0 +1,249 @@
+/*
+ * Craft - Crafting game for Android, PC and Browser.
+ * Copyright (C) 2014 Miguel Gonzalez
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+
+package de.bitbrain.craft.core;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import de.bitbrain.craft.audio.SoundType;
+import de.bitbrain.craft.db.ItemSoundMapper;
+import de.bitbrain.craft.db.SoundConfigMapper;
+import de.bitbrain.craft.db.UnitOfWork;
+import de.bitbrain.craft.models.ItemSound;
+import de.bitbrain.craft.models.SoundConfig;
+
+/**
+ * In-memory table of all sounds linked to items. The table is loaded once on first access, so looking up a sound while
+ * handling input does not touch the datastore. It is loaded without holding the lock of the table, see
+ * {@link ItemCatalog}.
+ *
+ * @author Miguel Gonzalez <miguel-gonzalez@gmx.de>
+ * @since 1.0
+ * @version 1.0
+ */
+class ItemSoundTable {
+
+  private final ItemSoundMapper itemSoundMapper;
+
+  private final SoundConfigMapper soundConfigMapper;
+
+  private final UnitOfWork unitOfWork;
+
+  // All sounds linked to an item, in order of creation
+  private final Map<ItemId, List<SoundConfig>> sounds;
+
+  // First sound of each type linked to an item
+  private final Map<ItemId, Map<SoundType, SoundConfig>> soundsByType;
+
+  private boolean loaded;
+
+  // Is increased on every change, query results of an older version are discarded
+  private int version;
+
+  public ItemSoundTable(ItemSoundMapper itemSoundMapper, SoundConfigMapper soundConfigMapper, UnitOfWork unitOfWork) {
+    this.itemSoundMapper = itemSoundMapper;
+    this.soundConfigMapper = soundConfigMapper;
+    this.unitOfWork = unitOfWork;
+    sounds = new EnumMap<ItemId, List<SoundConfig>>(ItemId.class);
+    soundsByType = new EnumMap<ItemId, Map<SoundType, SoundConfig>>(ItemId.class);
+  }
+
+  /**
+   * Returns the sound configuration of an item
+   * 
+   * @param itemId
+   *          id of the item
+   * @param type
+   *          type of the sound
+   * @return sound configuration or null if the item has no sound of this type
+   */
+  public SoundConfig get(ItemId itemId, SoundType type) {
+    ensureLoaded();
+    synchronized (this) {
+      Map<SoundType, SoundConfig> configs = soundsByType.get(itemId);
+      return configs != null ? configs.get(type) : null;
+    }
+  }
+
+  /**
+   * Applies a sound to an item. An existing sound with the same file and type gets the new pitch, otherwise a new sound
+   * will be linked to the item. The table only changes once the sound has been written.
+   * 
+   * @param itemId
+   *          id of the item
+   * @param file
+   *          sound file
+   * @param type
+   *          type of the sound
+   * @param pitch
+   *          pitch of the sound
+   */
+  public void apply(final ItemId itemId, String file, SoundType type, float pitch) {
+    ensureLoaded();
+    final SoundConfig existing = find(itemId, file, type);
+    final SoundConfig config;
+    boolean success = false;
+    unitOfWork.begin();
+    try {
+      if (existing != null) {
+        // Work on a copy, the cached sound must stay untouched if the update fails
+        config = new SoundConfig(existing.getFile(), existing.getType());
+        config.setId(existing.getId());
+        config.setVolume(existing.getVolume());
+        config.setPan(existing.getPan());
+        config.setPitch(pitch);
+        success = soundConfigMapper.update(config);
+      } else {
+        config = new SoundConfig(file, type);
+        config.setPitch(pitch);
+        config.setPan(1f);
+        config.setVolume(0.6f);
+        if (soundConfigMapper.insert(config)) {
+          ItemSound itemSound = new ItemSound();
+          itemSound.setItemId(itemId);
+          itemSound.setSoundConfigId(config.getId());
+          success = itemSoundMapper.insert(itemSound);
+        }
+      }
+      if (success) {
+        // Within a migration the sound is only known once it has been written
+        unitOfWork.addListener(new UnitOfWork.Listener() {
+          @Override
+          public void onEnd(boolean committed) {
+            if (committed) {
+              publish(itemId, existing, config);
+            }
+          }
+        });
+      }
+    } finally {
+      if (success) {
+        unitOfWork.commit();
+      } else {
+        unitOfWork.rollback();
+      }
+    }
+  }
+
+  /**
+   * Discards all sounds, they are loaded again on next access
+   */
+  public synchronized void invalidate() {
+    sounds.clear();
+    soundsByType.clear();
+    loaded = false;
+    ++version;
+  }
+
+  /**
+   * Reloads all sounds from the datastore
+   */
+  public void refresh() {
+    int current;
+    synchronized (this) {
+      current = version;
+    }
+    Collection<SoundConfig> configs = soundConfigMapper.findAll();
+    Collection<ItemSound> itemSounds = itemSoundMapper.findAll();
+    Map<Integer, SoundConfig> configsById = new HashMap<Integer, SoundConfig>(configs.size());
+    for (SoundConfig config : configs) {
+      configsById.put(config.getId(), config);
+    }
+    synchronized (this) {
+      if (current == version) {
+        sounds.clear();
+        soundsByType.clear();
+        for (ItemSound itemSound : itemSounds) {
+          SoundConfig config = configsById.get(itemSound.getSoundConfigId());
+          if (config != null && itemSound.getItemId() != null) {
+            index(itemSound.getItemId(), config);
+          }
+        }
+        loaded = true;
+      }
+    }
+  }
+
+  private synchronized SoundConfig find(ItemId itemId, String file, SoundType type) {
+    List<SoundConfig> configs = sounds.get(itemId);
+    if (configs != null) {
+      for (SoundConfig config : configs) {
+        if (config.getFile().equals(file) && config.getType().equals(type)) {
+          return config;
+        }
+      }
+    }
+    return null;
+  }
+
+  // Replaces the previous sound with the written one, a new sound is added
+  private synchronized void publish(ItemId itemId, SoundConfig previous, SoundConfig config) {
+    ++version;
+    if (!loaded) {
+      // Loading will already contain the sound
+      return;
+    }
+    if (previous == null) {
+      index(itemId, config);
+      return;
+    }
+    List<SoundConfig> configs = sounds.get(itemId);
+    int position = configs != null ? configs.indexOf(previous) : -1;
+    if (position >= 0) {
+      configs.set(position, config);
+    }
+    Map<SoundType, SoundConfig> configsByType = soundsByType.get(itemId);
+    if (configsByType != null && configsByType.get(config.getType()) == previous) {
+      configsByType.put(config.getType(), config);
+    }
+  }
+
+  private void index(ItemId itemId, SoundConfig config) {
+    List<SoundConfig> configs = sounds.get(itemId);
+    if (configs == null) {
+      configs = new ArrayList<SoundConfig>(2);
+      sounds.put(itemId, configs);
+    }
+    configs.add(config);
+    Map<SoundType, SoundConfig> configsByType = soundsByType.get(itemId);
+    if (configsByType == null) {
+      configsByType = new EnumMap<SoundType, SoundConfig>(SoundType.class);
+      soundsByType.put(itemId, configsByType);
+    }
+    if (!configsByType.containsKey(config.getType())) {
+      configsByType.put(config.getType(), config);
+    }
+  }
+
+  private void ensureLoaded() {
+    // Loads again if the table changed during the query
+    while (!isLoaded()) {
+      refresh();
+    }
+  }
+
+  private synchronized boolean isLoaded() {
+    return loaded;
+  }
+}
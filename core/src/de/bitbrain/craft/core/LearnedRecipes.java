@@ -0,0 +1,161 @@
+/*
+ * Craft - Crafting game for Android, PC and Browser.
+ * Copyright (C) 2014 Miguel Gonzalez
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+
+package de.bitbrain.craft.core;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import de.bitbrain.craft.db.LearnedRecipeMapper;
+import de.bitbrain.craft.models.LearnedRecipe;
+
+/**
+ * In-memory set of learned recipes per player. The recipes of a player are loaded once on first access and kept as a
+ * bit set over the recipe ids, so checking whether a recipe is learned does not query the datastore. The recipes are
+ * loaded without holding the lock of the set, see {@link InventoryJournal}.
+ *
+ * @author Miguel Gonzalez <miguel-gonzalez@gmx.de>
+ * @since 1.0
+ * @version 1.0
+ */
+class LearnedRecipes {
+
+  private final LearnedRecipeMapper mapper;
+
+  private final Map<Integer, BitSet> learned;
+
+  // Is increased on invalidation, loaded recipes of an older version are discarded
+  private int version;
+
+  public LearnedRecipes(LearnedRecipeMapper mapper) {
+    this.mapper = mapper;
+    learned = new HashMap<Integer, BitSet>();
+  }
+
+  /**
+   * Checks if the player has learned the given recipe
+   * 
+   * @param playerId
+   *          id of the player
+   * @param recipeId
+   *          id of the recipe
+   * @return true when the recipe has been learned
+   */
+  public boolean contains(int playerId, int recipeId) {
+    if (recipeId < 0) {
+      return false;
+    }
+    for (;;) {
+      BitSet recipes = load(playerId);
+      synchronized (this) {
+        if (recipes == learned.get(playerId)) {
+          return recipes.get(recipeId);
+        }
+      }
+    }
+  }
+
+  /**
+   * Provides the ids of all recipes the player has learned
+   * 
+   * @param playerId
+   *          id of the player
+   * @return list of recipe ids
+   */
+  public List<Integer> getAll(int playerId) {
+    for (;;) {
+      BitSet recipes = load(playerId);
+      synchronized (this) {
+        if (recipes == learned.get(playerId)) {
+          List<Integer> result = new ArrayList<Integer>(recipes.cardinality());
+          for (int id = recipes.nextSetBit(0); id >= 0; id = recipes.nextSetBit(id + 1)) {
+            result.add(id);
+          }
+          return result;
+        }
+      }
+    }
+  }
+
+  /**
+   * Stores a newly learned recipe
+   * 
+   * @param playerId
+   *          id of the player
+   * @param recipeId
+   *          id of the recipe
+   * @return true when the recipe has not been learned before and could be stored
+   */
+  public boolean learn(int playerId, int recipeId) {
+    if (contains(playerId, recipeId)) {
+      return false;
+    }
+    if (mapper.insert(new LearnedRecipe(recipeId, playerId))) {
+      synchronized (this) {
+        BitSet recipes = learned.get(playerId);
+        if (recipes != null) {
+          recipes.set(recipeId);
+        }
+        // A load which is still running may not contain the recipe
+        ++version;
+      }
+      return true;
+    }
+    return false;
+  }
+
+  /**
+   * Discards the recipes of all players, they are loaded again on next access
+   */
+  public synchronized void invalidate() {
+    learned.clear();
+    ++version;
+  }
+
+  // Returns the recipes of the player, the caller has to check under the lock that they are still current
+  private BitSet load(int playerId) {
+    for (;;) {
+      int current;
+      synchronized (this) {
+        BitSet recipes = learned.get(playerId);
+        if (recipes != null) {
+          return recipes;
+        }
+        current = version;
+      }
+      Collection<LearnedRecipe> found = mapper.findByPlayerId(playerId);
+      synchronized (this) {
+        if (current == version && !learned.containsKey(playerId)) {
+          BitSet recipes = new BitSet();
+          for (LearnedRecipe recipe : found) {
+            if (recipe.getRecipeId() >= 0) {
+              recipes.set(recipe.getRecipeId());
+            }
+          }
+          learned.put(playerId, recipes);
+          return recipes;
+        }
+      }
+    }
+  }
+}
@@ -0,0 +1,259 @@
+/*
+ * Craft - Crafting game for Android, PC and Browser.
+ * Copyright (C) 2014 Miguel Gonzalez
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+
+package de.bitbrain.craft.core;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+
+import com.badlogic.gdx.Gdx;
+
+import de.bitbrain.craft.db.ProgressMapper;
+import de.bitbrain.craft.db.UnitOfWork;
+import de.bitbrain.craft.models.Profession;
+import de.bitbrain.craft.models.Progress;
+
+/**
+ * Write-behind cache for the progress of players. The progress of all professions of a player is loaded with a single
+ * query on first access. Changes are applied in memory immediately and written to the datastore within a single
+ * transaction when {@link #flush()} is called. The progress is loaded without holding the lock of the cache, see
+ * {@link InventoryJournal}.
+ *
+ * @author Miguel Gonzalez <miguel-gonzalez@gmx.de>
+ * @since 1.0
+ * @version 1.0
+ */
+class ProgressCache {
+
+  private final ProgressMapper mapper;
+
+  private final UnitOfWork unitOfWork;
+
+  private final Map<Integer, Map<Profession, Progress>> progress;
+
+  // Professions which changed since the last flush
+  private final Map<Integer, Set<Profession>> dirty;
+
+  private final Object flushLock = new Object();
+
+  // Is increased on invalidation, loaded progress of an older version is discarded
+  private int version;
+
+  public ProgressCache(ProgressMapper mapper, UnitOfWork unitOfWork) {
+    this.mapper = mapper;
+    this.unitOfWork = unitOfWork;
+    progress = new HashMap<Integer, Map<Profession, Progress>>();
+    dirty = new HashMap<Integer, Set<Profession>>();
+  }
+
+  /**
+   * Returns the progress of a player in a profession
+   * 
+   * @param playerId
+   *          id of the player
+   * @param profession
+   *          profession of the progress
+   * @return current progress or null if the player has no progress in this profession
+   */
+  public Progress get(int playerId, Profession profession) {
+    for (;;) {
+      Map<Profession, Progress> professions = load(playerId);
+      synchronized (this) {
+        if (professions == progress.get(playerId)) {
+          return professions.get(profession);
+        }
+      }
+    }
+  }
+
+  /**
+   * Adds experience to the progress of a player
+   * 
+   * @param playerId
+   *          id of the player
+   * @param profession
+   *          profession of the progress
+   * @param xp
+   *          experience to add
+   * @return updated progress or null if the player has no progress in this profession
+   */
+  public Progress addXp(int playerId, Profession profession, int xp) {
+    for (;;) {
+      Map<Profession, Progress> professions = load(playerId);
+      synchronized (this) {
+        if (professions == progress.get(playerId)) {
+          Progress current = professions.get(profession);
+          if (current != null) {
+            current.addXp(xp);
+            markDirty(playerId, profession);
+          }
+          return current;
+        }
+      }
+    }
+  }
+
+  /**
+   * Sets the experience of a player
+   * 
+   * @param playerId
+   *          id of the player
+   * @param profession
+   *          profession of the progress
+   * @param xp
+   *          new experience
+   * @return updated progress or null if the player has no progress in this profession
+   */
+  public Progress setXp(int playerId, Profession profession, int xp) {
+    for (;;) {
+      Map<Profession, Progress> professions = load(playerId);
+      synchronized (this) {
+        if (professions == progress.get(playerId)) {
+          Progress current = professions.get(profession);
+          if (current != null) {
+            current.setXp(xp);
+            markDirty(playerId, profession);
+          }
+          return current;
+        }
+      }
+    }
+  }
+
+  /**
+   * Writes all pending changes to the datastore. Blocks until all changes are written. Is only called on the database
+   * thread, see {@link de.bitbrain.craft.db.DatabaseExecutor}.
+   */
+  public void flush() {
+    synchronized (flushLock) {
+      final List<Progress> changes = collectChanges();
+      if (changes.isEmpty()) {
+        return;
+      }
+      boolean began = false;
+      try {
+        unitOfWork.begin();
+        began = true;
+        unitOfWork.addListener(new UnitOfWork.Listener() {
+          @Override
+          public void onEnd(boolean committed) {
+            if (!committed) {
+              restore(changes);
+            }
+          }
+        });
+        try {
+          for (Progress change : changes) {
+            mapper.update(change);
+          }
+        } catch (RuntimeException e) {
+          unitOfWork.rollback();
+          throw e;
+        }
+        unitOfWork.commit();
+      } catch (RuntimeException e) {
+        Gdx.app.error("ERROR", "Unable to write " + changes.size() + " progress changes.", e);
+        if (!began) {
+          restore(changes);
+        }
+      }
+    }
+  }
+
+  /**
+   * Discards all loaded progress and pending changes. It is loaded from the datastore again on next access.
+   */
+  public void invalidate() {
+    synchronized (flushLock) {
+      synchronized (this) {
+        progress.clear();
+        dirty.clear();
+        ++version;
+      }
+    }
+  }
+
+  private synchronized List<Progress> collectChanges() {
+    List<Progress> changes = new ArrayList<Progress>();
+    for (Entry<Integer, Set<Profession>> entry : dirty.entrySet()) {
+      Map<Profession, Progress> professions = progress.get(entry.getKey());
+      for (Profession profession : entry.getValue()) {
+        // Write a snapshot, the cached progress may change while writing
+        Progress current = professions.get(profession);
+        Progress change = new Progress(current.getPlayerId(), profession);
+        change.setId(current.getId());
+        change.setXp(current.getXp());
+        changes.add(change);
+      }
+    }
+    dirty.clear();
+    return changes;
+  }
+
+  private synchronized void restore(List<Progress> changes) {
+    for (Progress change : changes) {
+      if (!progress.containsKey(change.getPlayerId())) {
+        // Has been invalidated meanwhile
+        continue;
+      }
+      markDirty(change.getPlayerId(), change.getProfession());
+    }
+  }
+
+  // Returns the progress of the player, the caller has to check under the lock that it is still current
+  private Map<Profession, Progress> load(int playerId) {
+    for (;;) {
+      int current;
+      synchronized (this) {
+        Map<Profession, Progress> professions = progress.get(playerId);
+        if (professions != null) {
+          return professions;
+        }
+        current = version;
+      }
+      Collection<Progress> found = mapper.progressOfPlayer(playerId);
+      synchronized (this) {
+        if (current == version && !progress.containsKey(playerId)) {
+          Map<Profession, Progress> professions = new EnumMap<Profession, Progress>(Profession.class);
+          for (Progress p : found) {
+            professions.put(p.getProfession(), p);
+          }
+          progress.put(playerId, professions);
+          return professions;
+        }
+      }
+    }
+  }
+
+  private void markDirty(int playerId, Profession profession) {
+    Set<Profession> professions = dirty.get(playerId);
+    if (professions == null) {
+      professions = EnumSet.noneOf(Profession.class);
+      dirty.put(playerId, professions);
+    }
+    professions.add(profession);
+  }
+}
@@ -0,0 +1,260 @@
+/*
+ * Craft - Crafting game for Android, PC and Browser.
+ * Copyright (C) 2014 Miguel Gonzalez
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+
+package de.bitbrain.craft.core;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import de.bitbrain.craft.db.IngredientMapper;
+import de.bitbrain.craft.db.RecipeMapper;
+import de.bitbrain.craft.models.Ingredient;
+import de.bitbrain.craft.models.Recipe;
+
+/**
+ * In-memory graph of all recipes and their ingredients. Provides a forward index from an item to its recipe and
+ * ingredients and an inverted index from an ingredient to all recipes which use it. The graph is loaded once on first
+ * access, without holding the lock of the graph, see {@link ItemCatalog}.
+ *
+ * @author Miguel Gonzalez <miguel-gonzalez@gmx.de>
+ * @since 1.0
+ * @version 1.0
+ */
+class RecipeGraph {
+
+  private final RecipeMapper recipeMapper;
+
+  private final IngredientMapper ingredientMapper;
+
+  private final Map<Integer, Recipe> recipes;
+
+  private final Map<ItemId, Recipe> recipesByItem;
+
+  private final Map<Integer, List<Ingredient>> ingredients;
+
+  private final Map<ItemId, List<Recipe>> recipesByIngredient;
+
+  private boolean loaded;
+
+  // Is increased on every change, query results of an older version are discarded
+  private int version;
+
+  public RecipeGraph(RecipeMapper recipeMapper, IngredientMapper ingredientMapper) {
+    this.recipeMapper = recipeMapper;
+    this.ingredientMapper = ingredientMapper;
+    recipes = new HashMap<Integer, Recipe>();
+    recipesByItem = new EnumMap<ItemId, Recipe>(ItemId.class);
+    ingredients = new HashMap<Integer, List<Ingredient>>();
+    recipesByIngredient = new EnumMap<ItemId, List<Recipe>>(ItemId.class);
+  }
+
+  /**
+   * Finds the recipe which crafts the given item
+   * 
+   * @param itemId
+   *          id of the item to craft
+   * @return recipe or null if the item can not be crafted
+   */
+  public Recipe findRecipe(ItemId itemId) {
+    ensureLoaded();
+    synchronized (this) {
+      return recipesByItem.get(itemId);
+    }
+  }
+
+  /**
+   * Provides the recipe with the given id
+   * 
+   * @param id
+   *          id of the recipe
+   * @return recipe or null if not found
+   */
+  public Recipe getRecipe(int id) {
+    ensureLoaded();
+    synchronized (this) {
+      return recipes.get(id);
+    }
+  }
+
+  /**
+   * Provides all ingredients of the given recipe
+   * 
+   * @param recipe
+   *          target recipe
+   * @return unmodifiable list of ingredients
+   */
+  public List<Ingredient> getIngredients(Recipe recipe) {
+    ensureLoaded();
+    synchronized (this) {
+      List<Ingredient> list = ingredients.get(recipe.getId());
+      return list != null ? Collections.unmodifiableList(list) : Collections.<Ingredient> emptyList();
+    }
+  }
+
+  /**
+   * Finds all recipes which contain every given item as ingredient
+   * 
+   * @param itemIds
+   *          ingredients to look for
+   * @return new list of recipes. Is empty if no recipes could be found.
+   */
+  public List<Recipe> findByIngredients(Collection<ItemId> itemIds) {
+    ensureLoaded();
+    List<Recipe> result = new ArrayList<Recipe>();
+    if (itemIds.isEmpty()) {
+      return result;
+    }
+    synchronized (this) {
+      // Start with the smallest posting list and check the remaining ingredients of each candidate
+      List<Recipe> candidates = null;
+      for (ItemId id : itemIds) {
+        List<Recipe> posting = recipesByIngredient.get(id);
+        if (posting == null) {
+          return result;
+        }
+        if (candidates == null || posting.size() < candidates.size()) {
+          candidates = posting;
+        }
+      }
+      for (Recipe recipe : candidates) {
+        if (containsAll(recipe, itemIds)) {
+          result.add(recipe);
+        }
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Adds a newly registered recipe to the graph
+   * 
+   * @param recipe
+   *          new recipe
+   * @param recipeIngredients
+   *          ingredients of the recipe
+   */
+  public synchronized void add(Recipe recipe, Collection<Ingredient> recipeIngredients) {
+    // Loading will already contain the recipe, unless it is running already
+    ++version;
+    if (loaded) {
+      index(recipe);
+      for (Ingredient ingredient : recipeIngredients) {
+        index(ingredient);
+      }
+    }
+  }
+
+  /**
+   * Discards the graph, it is loaded again on next access
+   */
+  public synchronized void invalidate() {
+    recipes.clear();
+    recipesByItem.clear();
+    ingredients.clear();
+    recipesByIngredient.clear();
+    loaded = false;
+    ++version;
+  }
+
+  /**
+   * Reloads the complete graph from the datastore
+   */
+  public void refresh() {
+    int current;
+    synchronized (this) {
+      current = version;
+    }
+    Collection<Recipe> foundRecipes = recipeMapper.findAll();
+    Collection<Ingredient> foundIngredients = ingredientMapper.findAll();
+    synchronized (this) {
+      if (current == version) {
+        recipes.clear();
+        recipesByItem.clear();
+        ingredients.clear();
+        recipesByIngredient.clear();
+        for (Recipe recipe : foundRecipes) {
+          index(recipe);
+        }
+        for (Ingredient ingredient : foundIngredients) {
+          index(ingredient);
+        }
+        loaded = true;
+      }
+    }
+  }
+
+  private void ensureLoaded() {
+    // Loads again if the graph changed during the query
+    while (!isLoaded()) {
+      refresh();
+    }
+  }
+
+  private synchronized boolean isLoaded() {
+    return loaded;
+  }
+
+  private void index(Recipe recipe) {
+    recipes.put(recipe.getId(), recipe);
+    if (!recipesByItem.containsKey(recipe.getItemId())) {
+      recipesByItem.put(recipe.getItemId(), recipe);
+    }
+  }
+
+  private void index(Ingredient ingredient) {
+    Recipe recipe = recipes.get(ingredient.getRecipeId());
+    if (recipe == null) {
+      return;
+    }
+    List<Ingredient> list = ingredients.get(recipe.getId());
+    if (list == null) {
+      list = new ArrayList<Ingredient>();
+      ingredients.put(recipe.getId(), list);
+    }
+    list.add(ingredient);
+    List<Recipe> posting = recipesByIngredient.get(ingredient.getItemId());
+    if (posting == null) {
+      posting = new ArrayList<Recipe>();
+      recipesByIngredient.put(ingredient.getItemId(), posting);
+    }
+    posting.add(recipe);
+  }
+
+  private boolean containsAll(Recipe recipe, Collection<ItemId> itemIds) {
+    List<Ingredient> list = ingredients.get(recipe.getId());
+    for (ItemId id : itemIds) {
+      boolean found = false;
+      for (Ingredient ingredient : list) {
+        if (ingredient.getItemId() == id) {
+          found = true;
+          break;
+        }
+      }
+      if (!found) {
+        return false;
+      }
+    }
+    return true;
+  }
+}
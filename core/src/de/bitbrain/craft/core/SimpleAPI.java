@@ -21,45 +21,51 @@ package de.bitbrain.craft.core;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Map.Entry;
 
 import com.badlogic.gdx.Gdx;
 import com.google.inject.Inject;
 
+import de.bitbrain.craft.Settings;
 import de.bitbrain.craft.audio.SoundType;
 import de.bitbrain.craft.core.RecipeDataBuilder.RecipeData;
+import de.bitbrain.craft.db.DatabaseExecutor;
 import de.bitbrain.craft.db.IngredientMapper;
 import de.bitbrain.craft.db.ItemMapper;
 import de.bitbrain.craft.db.ItemSoundMapper;
 import de.bitbrain.craft.db.LearnedRecipeMapper;
+import de.bitbrain.craft.db.MapperFactory;
 import de.bitbrain.craft.db.OwnedItemMapper;
 import de.bitbrain.craft.db.PlayerMapper;
 import de.bitbrain.craft.db.ProgressMapper;
 import de.bitbrain.craft.db.RecipeMapper;
 import de.bitbrain.craft.db.SoundConfigMapper;
+import de.bitbrain.craft.db.UnitOfWork;
 import de.bitbrain.craft.events.Event.EventType;
-import de.bitbrain.craft.events.EventBus;
+import de.bitbrain.craft.events.ItemBatchEvent;
 import de.bitbrain.craft.events.ItemEvent;
 import de.bitbrain.craft.events.ProgressEvent;
+import de.bitbrain.craft.events.RecipeEvent;
+import de.bitbrain.craft.events.StateEventBus;
 import de.bitbrain.craft.graphics.Icon;
 import de.bitbrain.craft.inject.PostConstruct;
-import de.bitbrain.craft.inject.SharedInjector;
 import de.bitbrain.craft.models.Ingredient;
 import de.bitbrain.craft.models.Item;
 import de.bitbrain.craft.models.Item.Rarity;
-import de.bitbrain.craft.models.ItemSound;
-import de.bitbrain.craft.models.LearnedRecipe;
-import de.bitbrain.craft.models.OwnedItem;
 import de.bitbrain.craft.models.Player;
 import de.bitbrain.craft.models.Profession;
 import de.bitbrain.craft.models.Progress;
 import de.bitbrain.craft.models.Recipe;
 import de.bitbrain.craft.models.SoundConfig;
-import de.bitbrain.jpersis.JPersis;
 
 /**
- * General API interface
+ * General API interface. Reads are answered from memory, changes of inventory and progress are written behind. All
+ * other writes have to run on the database thread, so the datastore is only written by a single thread. They fail on
+ * any other thread instead of blocking it, see {@link AsyncAPI}.
  *
  * @author Miguel Gonzalez <miguel-gonzalez@gmx.de>
  * @since 1.0
@@ -77,25 +83,59 @@ class SimpleAPI implements API {
   private SoundConfigMapper soundConfigMapper;
   private ItemSoundMapper itemSoundMapper;
 
+  private ItemCatalog itemCatalog;
+  private InventoryJournal inventory;
+  private RecipeGraph recipeGraph;
+  private LearnedRecipes learnedRecipes;
+  private ItemSoundTable itemSounds;
+  private ProgressCache progressCache;
+
+  // Writes pending changes of the caches, only runs on the database thread
+  private final Runnable flushTask = new Runnable() {
+    @Override
+    public void run() {
+      inventory.flush();
+      progressCache.flush();
+    }
+  };
+
+  @Inject
+  private DatabaseExecutor database;
+
+  // Bus of the current state, events of the database thread are fired on the render thread
+  @Inject
+  private StateEventBus eventBus;
+
+  @Inject
+  private MapperFactory mappers;
+
   @Inject
-  private JPersis jpersis;
+  private UnitOfWork unitOfWork;
 
   @PostConstruct
   public void init() {
-    itemMapper = jpersis.map(ItemMapper.class);
-    ownedItemMapper = jpersis.map(OwnedItemMapper.class);
-    playerMapper = jpersis.map(PlayerMapper.class);
-    progressMapper = jpersis.map(ProgressMapper.class);
-    recipeMapper = jpersis.map(RecipeMapper.class);
-    learnedRecipeMapper = jpersis.map(LearnedRecipeMapper.class);
-    ingredientMapper = jpersis.map(IngredientMapper.class);
-    soundConfigMapper = jpersis.map(SoundConfigMapper.class);
-    itemSoundMapper = jpersis.map(ItemSoundMapper.class);
+    itemMapper = mappers.map(ItemMapper.class);
+    ownedItemMapper = mappers.map(OwnedItemMapper.class);
+    playerMapper = mappers.map(PlayerMapper.class);
+    progressMapper = mappers.map(ProgressMapper.class);
+    recipeMapper = mappers.map(RecipeMapper.class);
+    learnedRecipeMapper = mappers.map(LearnedRecipeMapper.class);
+    ingredientMapper = mappers.map(IngredientMapper.class);
+    soundConfigMapper = mappers.map(SoundConfigMapper.class);
+    itemSoundMapper = mappers.map(ItemSoundMapper.class);
+    itemCatalog = new ItemCatalog(itemMapper);
+    inventory = new InventoryJournal(ownedItemMapper, unitOfWork);
+    recipeGraph = new RecipeGraph(recipeMapper, ingredientMapper);
+    learnedRecipes = new LearnedRecipes(learnedRecipeMapper);
+    itemSounds = new ItemSoundTable(itemSoundMapper, soundConfigMapper, unitOfWork);
+    progressCache = new ProgressCache(progressMapper, unitOfWork);
+    // Is stopped together with the database thread
+    database.schedule(flushTask, Settings.DB_FLUSH_INTERVAL);
   }
 
   @Override
   public Item getItem(ItemId id) {
-    return itemMapper.findById(id);
+    return itemCatalog.get(id);
   }
 
   /**
@@ -105,11 +145,12 @@ class SimpleAPI implements API {
    */
   @Override
   public Collection<Item> getAllItems() {
-    return itemMapper.findAll();
+    return itemCatalog.getAll();
   }
 
   /**
-   * Provides all items which are owned by the given player
+   * Provides all items which are owned by the given player. Runs a constant number of queries, no matter how many items
+   * or recipes the player owns.
    * 
    * @param playerId
    *          id of the player
@@ -118,18 +159,18 @@ class SimpleAPI implements API {
   @Override
   public ItemBag getOwnedItems(int playerId) {
     ItemBag bag = new ItemBag();
-    Collection<OwnedItem> owned = ownedItemMapper.findAllByPlayerId(playerId);
-
-    for (OwnedItem own : owned) {
-      Item item = itemMapper.findById(own.getItemId());
-      bag.add(item, own.getAmount());
+    for (Entry<ItemId, Integer> owned : inventory.getAll(playerId).entrySet()) {
+      Item item = getItem(owned.getKey());
+      bag.add(item, owned.getValue());
     }
 
     // TODO: Implement later when system is more flexible
-    Collection<LearnedRecipe> learnedRecipes = learnedRecipeMapper.findByPlayerId(playerId);
-    for (LearnedRecipe learned : learnedRecipes) {
-      Recipe recipe = recipeMapper.findById(learned.getRecipeId());
-      Item item = itemMapper.findById(recipe.getItemId());
+    for (Integer recipeId : learnedRecipes.getAll(playerId)) {
+      Recipe recipe = recipeGraph.getRecipe(recipeId);
+      if (recipe == null) {
+        continue;
+      }
+      Item item = getItem(recipe.getItemId());
       if (recipe.getProfession().equals(Profession.current) && !bag.contains(item)) {
         bag.add(item, 0);
       }
@@ -155,14 +196,24 @@ class SimpleAPI implements API {
 
   @Override
   public Player createPlayer(String name) throws APIException {
+    checkDatabaseThread();
     if (playerMapper.findByName(name) == null) {
       Player player = new Player();
       player.setName(name);
-      playerMapper.insert(player);
+      boolean success = false;
+      unitOfWork.begin();
+      try {
+        playerMapper.insert(player);
 
-      // Add professions
-      for (Profession profession : Profession.values()) {
-        progressMapper.insert(new Progress(player.getId(), profession));
+        // Add professions
+        Collection<Progress> progress = new ArrayList<Progress>();
+        for (Profession profession : Profession.values()) {
+          progress.add(new Progress(player.getId(), profession));
+        }
+        progressMapper.insert(progress);
+        success = true;
+      } finally {
+        endTransaction(success);
       }
 
       return player;
@@ -180,48 +231,47 @@ class SimpleAPI implements API {
   public Item addItem(int playerId, ItemId id, int amount) {
     Item item = getItem(id);
     if (item != null) {
-      OwnedItem owned = ownedItemMapper.findById(id, playerId);
-      if (owned == null) {
-        owned = new OwnedItem();
-        owned.setPlayerId(playerId);
-        owned.setItemId(id);
-        owned.setAmount(amount);
-        ownedItemMapper.insert(owned);
-      } else {
-        if (owned.getAmount() == Item.INFINITE_AMOUNT) {
-          return item;
-        }
-        owned.setAmount(owned.getAmount() + amount);
-        ownedItemMapper.update(owned);
+      if (increase(playerId, id, amount)) {
+        eventBus.fireEvent(new ItemEvent(EventType.ADD, item, amount));
       }
-      bus().fireEvent(new ItemEvent(EventType.ADD, item, amount));
       return item;
     } else {
       return null;
     }
   }
 
+  @Override
+  public ItemBag addItems(int playerId, Map<ItemId, Integer> amounts) {
+    ItemBag added = new ItemBag();
+    for (Entry<ItemId, Integer> entry : amounts.entrySet()) {
+      Item item = getItem(entry.getKey());
+      if (item != null && increase(playerId, entry.getKey(), entry.getValue())) {
+        added.add(item, entry.getValue());
+      }
+    }
+    if (added.size() > 0) {
+      eventBus.fireEvent(new ItemBatchEvent(EventType.ADD, added));
+    }
+    return added;
+  }
+
   @Override
   public boolean removeItem(int playerId, ItemId id, int amount) {
-    OwnedItem owned = ownedItemMapper.findById(id, playerId);
-    Item item = itemMapper.findById(id);
-    EventBus eventBus = SharedInjector.get().getInstance(EventBus.class);
-    if (owned.getAmount() == Item.INFINITE_AMOUNT) {
+    Integer owned = inventory.get(playerId, id);
+    if (owned == null) {
+      return false;
+    }
+    Item item = getItem(id);
+    if (owned == Item.INFINITE_AMOUNT) {
       eventBus.fireEvent(new ItemEvent(EventType.REMOVE, item, amount));
       return true;
     }
-    int count = owned.getAmount() - amount;
-    if (owned != null && count >= 0) {
-
-      try {
-        if (count > 0) {
-          owned.setAmount(count);
-          ownedItemMapper.update(owned);
-        } else {
-          ownedItemMapper.delete(owned);
-        }
-      } catch (Exception e) {
-        e.printStackTrace();
+    int count = owned - amount;
+    if (count >= 0) {
+      if (count > 0) {
+        inventory.set(playerId, id, count);
+      } else {
+        inventory.remove(playerId, id);
       }
       eventBus.fireEvent(new ItemEvent(EventType.REMOVE, item, amount));
       return true;
@@ -232,22 +282,41 @@ class SimpleAPI implements API {
 
   @Override
   public void registerItem(ItemId itemId, Icon icon, Rarity rarity, int level) {
-    Item item = itemMapper.findById(itemId);
-    if (item == null) {
-      item = new Item(itemId, icon, rarity);
-      item.setLevel(level);
-      itemMapper.insert(item);
-    }
+    Item item = new Item(itemId, icon, rarity);
+    item.setLevel(level);
+    registerItems(Collections.singletonList(item));
   }
 
   @Override
-  public boolean canCraftIndirect(ItemId itemId) {
-    for (Profession p : Profession.values()) {
-      if (canCraft(Player.getCurrent(), p, itemId)) {
-        return true;
+  public void registerItems(Collection<Item> items) {
+    checkDatabaseThread();
+    Collection<Item> newItems = new ArrayList<Item>(items.size());
+    for (Item item : items) {
+      if (itemCatalog.get(item.getId()) == null) {
+        newItems.add(item);
       }
     }
-    return false;
+    if (!newItems.isEmpty() && itemMapper.insert(newItems)) {
+      final Collection<Item> inserted = newItems;
+      // Within a migration the items are only known once it has been written
+      unitOfWork.addListener(new UnitOfWork.Listener() {
+        @Override
+        public void onEnd(boolean committed) {
+          if (committed) {
+            for (Item item : inserted) {
+              itemCatalog.put(item);
+            }
+          }
+        }
+      });
+    }
+  }
+
+  @Override
+  public boolean canCraftIndirect(ItemId itemId) {
+    // An item resolves to a single recipe, so any profession matches
+    Recipe recipe = recipeGraph.findRecipe(itemId);
+    return recipe != null && learnedRecipes.contains(Player.getCurrent().getId(), recipe.getId());
   }
 
   @Override
@@ -257,12 +326,9 @@ class SimpleAPI implements API {
 
   @Override
   public boolean canCraft(Player player, Profession profession, ItemId itemId) {
-    Recipe recipe = recipeMapper.findByItemId(itemId);
-    if (recipe != null && recipe.getProfession().equals(profession)) {
-      LearnedRecipe learned = learnedRecipeMapper.findByRecipeId(recipe.getId(), player.getId());
-      return learned != null;
-    }
-    return false;
+    Recipe recipe = recipeGraph.findRecipe(itemId);
+    return recipe != null && recipe.getProfession().equals(profession)
+        && learnedRecipes.contains(player.getId(), recipe.getId());
   }
 
   @Override
@@ -272,96 +338,136 @@ class SimpleAPI implements API {
 
   @Override
   public void removeItem(int playerId, ItemId id) {
-    OwnedItem owned = ownedItemMapper.findById(id, playerId);
-    ownedItemMapper.delete(owned);
-    bus().fireEvent(new ItemEvent(EventType.REMOVE, getItem(owned.getItemId()), owned.getAmount()));
+    Integer owned = inventory.remove(playerId, id);
+    if (owned != null) {
+      eventBus.fireEvent(new ItemEvent(EventType.REMOVE, getItem(id), owned));
+    }
   }
 
   @Override
   public void clearItems(int playerId) {
-    Collection<OwnedItem> items = ownedItemMapper.findAllByPlayerId(playerId);
-    ownedItemMapper.delete(items);
-    for (OwnedItem item : items) {
-      bus().fireEvent(new ItemEvent(EventType.REMOVE, getItem(item.getItemId()), item.getAmount()));
+    Map<ItemId, Integer> items = inventory.clear(playerId);
+    if (!items.isEmpty()) {
+      ItemBag removed = new ItemBag();
+      for (Entry<ItemId, Integer> item : items.entrySet()) {
+        removed.add(getItem(item.getKey()), item.getValue());
+      }
+      eventBus.fireEvent(new ItemBatchEvent(EventType.REMOVE, removed));
     }
   }
 
   @Override
   public void applyItemSound(ItemId itemId, String deferredSoundFile, SoundType type, float pitch) {
-    Collection<ItemSound> itemSounds = itemSoundMapper.findByItemId(itemId);
-    boolean found = false;
-    for (ItemSound itemSound : itemSounds) {
-      SoundConfig config = soundConfigMapper.findById(itemSound.getSoundConfigId());
-      if (config.getFile().equals(deferredSoundFile) && config.getType().equals(type)) {
-        config.setPitch(pitch);
-        soundConfigMapper.update(config);
-        found = true;
-        break;
-      }
-    }
-    if (!found) {
-      SoundConfig config = new SoundConfig(deferredSoundFile, type);
-      config.setPitch(pitch);
-      config.setPan(1f);
-      config.setVolume(0.6f);
-      soundConfigMapper.insert(config);
-      ItemSound itemSound = new ItemSound();
-      itemSound.setItemId(itemId);
-      itemSound.setSoundConfigId(config.getId());
-      itemSoundMapper.insert(itemSound);
-    }
+    checkDatabaseThread();
+    itemSounds.apply(itemId, deferredSoundFile, type, pitch);
   }
 
   @Override
   public SoundConfig getItemSoundConfig(ItemId itemId, SoundType type) {
-    Collection<ItemSound> itemSounds = itemSoundMapper.findByItemId(itemId);
-    for (ItemSound sound : itemSounds) {
-      SoundConfig config = soundConfigMapper.findById(sound.getSoundConfigId());
-      if (config.getType().equals(type)) {
-        return config;
-      }
-    }
-    return null;
+    return itemSounds.get(itemId, type);
   }
 
   @Override
   public Recipe registerRecipe(RecipeData data) {
-    Recipe recipe = new Recipe();
-    recipe.setItemId(data.itemId);
-    recipe.setAmount(data.amount);
-    recipe.setProfession(data.profession);
-    if (recipeMapper.insert(recipe)) {
-      // Add ingredients
-      for (Entry<ItemId, Integer> entry : data.ingredients.entrySet()) {
-        Ingredient i = new Ingredient();
-        ItemId itemId = entry.getKey();
-        i.setItemId(itemId);
-        i.setAmount(entry.getValue());
-        i.setRecipeId(recipe.getId());
-        if (!ingredientMapper.insert(i)) {
-          Gdx.app.error("ERROR",
-              "Unable to register recipe: " + itemId + " already exists for recipe: " + recipe.getItemId());
+    List<Recipe> recipes = registerRecipes(Collections.singletonList(data));
+    return recipes.isEmpty() ? null : recipes.get(0);
+  }
+
+  @Override
+  public List<Recipe> registerRecipes(Collection<RecipeData> data) {
+    checkDatabaseThread();
+    List<Recipe> recipes = new ArrayList<Recipe>(data.size());
+    List<Collection<Ingredient>> recipeIngredients = new ArrayList<Collection<Ingredient>>(data.size());
+    Collection<Ingredient> ingredients = new ArrayList<Ingredient>();
+    boolean success = false;
+    unitOfWork.begin();
+    try {
+      for (RecipeData recipeData : data) {
+        Recipe recipe = new Recipe();
+        recipe.setItemId(recipeData.itemId);
+        recipe.setAmount(recipeData.amount);
+        recipe.setProfession(recipeData.profession);
+        // Recipes are inserted one by one, since their generated ids are required for the ingredients
+        if (!recipeMapper.insert(recipe)) {
+          Gdx.app.error("ERROR", "Unable to register recipe for " + recipeData.itemId);
+          return Collections.emptyList();
         }
+        Collection<Ingredient> current = new ArrayList<Ingredient>(recipeData.ingredients.size());
+        for (Entry<ItemId, Integer> entry : recipeData.ingredients.entrySet()) {
+          Ingredient i = new Ingredient();
+          i.setItemId(entry.getKey());
+          i.setAmount(entry.getValue());
+          i.setRecipeId(recipe.getId());
+          current.add(i);
+        }
+        recipes.add(recipe);
+        recipeIngredients.add(current);
+        ingredients.addAll(current);
+      }
+      if (!ingredients.isEmpty() && !ingredientMapper.insert(ingredients)) {
+        Gdx.app.error("ERROR", "Unable to register ingredients of " + recipes.size() + " recipes");
+        return Collections.emptyList();
       }
-      return recipe;
+      final List<Recipe> inserted = recipes;
+      final List<Collection<Ingredient>> insertedIngredients = recipeIngredients;
+      unitOfWork.addListener(new UnitOfWork.Listener() {
+        @Override
+        public void onEnd(boolean committed) {
+          if (committed) {
+            for (int i = 0; i < inserted.size(); ++i) {
+              recipeGraph.add(inserted.get(i), insertedIngredients.get(i));
+            }
+          }
+        }
+      });
+      success = true;
+    } finally {
+      endTransaction(success);
+    }
+    return recipes;
+  }
+
+  /**
+   * Increases the owned amount of an item. Infinite items stay infinite.
+   * 
+   * @return true if the amount has been changed
+   */
+  private boolean increase(int playerId, ItemId id, int amount) {
+    Integer owned = inventory.get(playerId, id);
+    if (owned == null) {
+      inventory.set(playerId, id, amount);
     } else {
-      return null;
+      if (owned == Item.INFINITE_AMOUNT) {
+        return false;
+      }
+      inventory.set(playerId, id, owned + amount);
+    }
+    return true;
+  }
+
+  private void checkDatabaseThread() {
+    if (!database.isAccessible()) {
+      throw new IllegalStateException("Writes to the datastore have to run on the database thread, use AsyncAPI.");
     }
   }
 
-  private EventBus bus() {
-    return SharedInjector.get().getInstance(EventBus.class);
+  private void endTransaction(boolean success) {
+    if (success) {
+      unitOfWork.commit();
+    } else {
+      unitOfWork.rollback();
+    }
   }
 
   @Override
   public boolean learnRecipe(Player player, ItemId id) {
-    Recipe recipe = recipeMapper.findByItemId(id);
-    if (recipe != null && learnedRecipeMapper.findByRecipeId(recipe.getId(), player.getId()) == null) {
-      LearnedRecipe learned = new LearnedRecipe(recipe.getId(), player.getId());
-      return learnedRecipeMapper.insert(learned);
-    } else {
-      return false;
+    checkDatabaseThread();
+    Recipe recipe = recipeGraph.findRecipe(id);
+    if (recipe != null && learnedRecipes.learn(player.getId(), recipe.getId())) {
+      eventBus.fireEvent(new RecipeEvent(EventType.ADD, recipe));
+      return true;
     }
+    return false;
   }
 
   @Override
@@ -372,11 +478,10 @@ class SimpleAPI implements API {
   @Override
   public ItemBag findIngredients(Item item) {
     ItemBag bag = new ItemBag();
-    Recipe recipe = recipeMapper.findByItemId(item.getId());
+    Recipe recipe = recipeGraph.findRecipe(item.getId());
     if (recipe != null) {
-      Collection<Ingredient> ingredients = ingredientMapper.findByRecipeId(recipe.getId());
-      for (Ingredient ingredient : ingredients) {
-        Item ingredientItem = itemMapper.findById(ingredient.getItemId());
+      for (Ingredient ingredient : recipeGraph.getIngredients(recipe)) {
+        Item ingredientItem = getItem(ingredient.getItemId());
         bag.add(ingredientItem, ingredient.getAmount());
       }
     }
@@ -385,14 +490,14 @@ class SimpleAPI implements API {
 
   @Override
   public Recipe findRecipe(ItemId itemId) {
-    return recipeMapper.findByItemId(itemId);
+    return recipeGraph.findRecipe(itemId);
   }
 
   @Override
   public int getItemAmount(Item item) {
-    OwnedItem owned = ownedItemMapper.findById(item.getId(), Player.getCurrent().getId());
+    Integer owned = inventory.get(Player.getCurrent().getId(), item.getId());
     if (owned != null) {
-      return owned.getAmount();
+      return owned;
     } else {
       return 0;
     }
@@ -400,32 +505,48 @@ class SimpleAPI implements API {
 
   @Override
   public Progress getProgress(Profession profession) {
-    return progressMapper.findProgress(Player.getCurrent().getId(), profession);
+    return progressCache.get(Player.getCurrent().getId(), profession);
   }
 
   @Override
   public Progress addXp(Profession profession, int xp) {
-    Progress progress = getProgress(profession);
-    progress.addXp(xp);
-    if (progressMapper.update(progress)) {
-      bus().fireEvent(new ProgressEvent(progress));
+    Progress current = progressCache.addXp(Player.getCurrent().getId(), profession, xp);
+    if (current != null) {
+      eventBus.fireEvent(new ProgressEvent(current));
     }
-    return progress;
+    return current;
   }
 
   @Override
   public Progress setXp(Profession profession, int xp) {
-    Progress progress = getProgress(profession);
-    progress.setXp(xp);
-    if (progressMapper.update(progress)) {
-      bus().fireEvent(new ProgressEvent(progress));
+    Progress current = progressCache.setXp(Player.getCurrent().getId(), profession, xp);
+    if (current != null) {
+      eventBus.fireEvent(new ProgressEvent(current));
     }
-    return progress;
+    return current;
+  }
+
+  @Override
+  public void flush() {
+    database.run(flushTask);
+  }
+
+  @Override
+  public void invalidate() {
+    itemCatalog.invalidate();
+    recipeGraph.invalidate();
+    learnedRecipes.invalidate();
+    itemSounds.invalidate();
+    inventory.invalidate();
+    progressCache.invalidate();
   }
 
   @Override
   public List<Recipe> getRecipesByIngredients(Collection<Item> items) {
-    List<Recipe> recipes = new ArrayList<Recipe>();
-    return recipes;
+    Collection<ItemId> ids = EnumSet.noneOf(ItemId.class);
+    for (Item item : items) {
+      ids.add(item.getId());
+    }
+    return recipeGraph.findByIngredients(ids);
   }
 }
\ No newline at end of file
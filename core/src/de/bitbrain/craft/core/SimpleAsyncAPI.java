@@ -0,0 +1,222 @@
+/*
+ * Craft - Crafting game for Android, PC and Browser.
+ * Copyright (C) 2014 Miguel Gonzalez
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+
+package de.bitbrain.craft.core;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.inject.Inject;
+
+import de.bitbrain.craft.audio.SoundType;
+import de.bitbrain.craft.core.RecipeDataBuilder.RecipeData;
+import de.bitbrain.craft.db.DatabaseExecutor;
+import de.bitbrain.craft.models.Item;
+import de.bitbrain.craft.models.Player;
+import de.bitbrain.craft.models.Profession;
+import de.bitbrain.craft.models.Progress;
+import de.bitbrain.craft.models.Recipe;
+
+/**
+ * Implementation of {@link AsyncAPI} which runs the {@link API} on the database thread
+ *
+ * @author Miguel Gonzalez <miguel-gonzalez@gmx.de>
+ * @since 1.0
+ * @version 1.0
+ */
+class SimpleAsyncAPI implements AsyncAPI {
+
+  @Inject
+  private API api;
+
+  @Inject
+  private DatabaseExecutor database;
+
+  @Override
+  public ListenableFuture<?> preload() {
+    return database.submit(new Runnable() {
+      @Override
+      public void run() {
+        Player player = Player.getCurrent();
+        api.getAllItems();
+        // Loads inventory, recipes and learned recipes
+        api.getOwnedItems(player.getId());
+        for (Profession profession : Profession.values()) {
+          api.getProgress(profession);
+        }
+        // Any lookup loads all item sounds
+        api.getItemSoundConfig(ItemId.values()[0], SoundType.values()[0]);
+      }
+    });
+  }
+
+  @Override
+  public ListenableFuture<Player> getFirstPlayer() {
+    return database.submit(new Callable<Player>() {
+      @Override
+      public Player call() {
+        return api.getFirstPlayer();
+      }
+    });
+  }
+
+  @Override
+  public ListenableFuture<Player> createPlayer(final String name) {
+    return database.submit(new Callable<Player>() {
+      @Override
+      public Player call() throws Exception {
+        return api.createPlayer(name);
+      }
+    });
+  }
+
+  @Override
+  public ListenableFuture<ItemBag> getOwnedItems(final int playerId) {
+    return database.submit(new Callable<ItemBag>() {
+      @Override
+      public ItemBag call() {
+        return api.getOwnedItems(playerId);
+      }
+    });
+  }
+
+  @Override
+  public ListenableFuture<Item> addItem(final int playerId, final ItemId id, final int amount) {
+    return database.submit(new Callable<Item>() {
+      @Override
+      public Item call() {
+        return api.addItem(playerId, id, amount);
+      }
+    });
+  }
+
+  @Override
+  public ListenableFuture<ItemBag> addItems(final int playerId, final Map<ItemId, Integer> amounts) {
+    return database.submit(new Callable<ItemBag>() {
+      @Override
+      public ItemBag call() {
+        return api.addItems(playerId, amounts);
+      }
+    });
+  }
+
+  @Override
+  public ListenableFuture<Boolean> removeItem(final int playerId, final ItemId id, final int amount) {
+    return database.submit(new Callable<Boolean>() {
+      @Override
+      public Boolean call() {
+        return api.removeItem(playerId, id, amount);
+      }
+    });
+  }
+
+  @Override
+  public ListenableFuture<?> removeItem(final int playerId, final ItemId id) {
+    return database.submit(new Runnable() {
+      @Override
+      public void run() {
+        api.removeItem(playerId, id);
+      }
+    });
+  }
+
+  @Override
+  public ListenableFuture<?> clearItems(final int playerId) {
+    return database.submit(new Runnable() {
+      @Override
+      public void run() {
+        api.clearItems(playerId);
+      }
+    });
+  }
+
+  @Override
+  public ListenableFuture<?> registerItems(final Collection<Item> items) {
+    return database.submit(new Runnable() {
+      @Override
+      public void run() {
+        api.registerItems(items);
+      }
+    });
+  }
+
+  @Override
+  public ListenableFuture<List<Recipe>> registerRecipes(final Collection<RecipeData> data) {
+    return database.submit(new Callable<List<Recipe>>() {
+      @Override
+      public List<Recipe> call() {
+        return api.registerRecipes(data);
+      }
+    });
+  }
+
+  @Override
+  public ListenableFuture<Boolean> learnRecipe(final Player player, final ItemId id) {
+    return database.submit(new Callable<Boolean>() {
+      @Override
+      public Boolean call() {
+        return api.learnRecipe(player, id);
+      }
+    });
+  }
+
+  @Override
+  public ListenableFuture<?> applyItemSound(final ItemId itemId, final String deferredSoundId, final SoundType type,
+      final float pitch) {
+    return database.submit(new Runnable() {
+      @Override
+      public void run() {
+        api.applyItemSound(itemId, deferredSoundId, type, pitch);
+      }
+    });
+  }
+
+  @Override
+  public ListenableFuture<Progress> addXp(final Profession profession, final int xp) {
+    return database.submit(new Callable<Progress>() {
+      @Override
+      public Progress call() {
+        return api.addXp(profession, xp);
+      }
+    });
+  }
+
+  @Override
+  public ListenableFuture<Progress> setXp(final Profession profession, final int xp) {
+    return database.submit(new Callable<Progress>() {
+      @Override
+      public Progress call() {
+        return api.setXp(profession, xp);
+      }
+    });
+  }
+
+  @Override
+  public ListenableFuture<?> flush() {
+    return database.submit(new Runnable() {
+      @Override
+      public void run() {
+        api.flush();
+      }
+    });
+  }
+}
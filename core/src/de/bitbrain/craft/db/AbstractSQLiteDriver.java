@@ -0,0 +1,422 @@
+/*
+ * Craft - Crafting game for Android, PC and Browser.
+ * Copyright (C) 2014 Miguel Gonzalez
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+
+package de.bitbrain.craft.db;
+
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+import com.badlogic.gdx.Gdx;
+
+import de.bitbrain.jpersis.JPersisException;
+import de.bitbrain.jpersis.drivers.DriverException;
+import de.bitbrain.jpersis.drivers.Query;
+import de.bitbrain.jpersis.drivers.jdbc.JDBCDriver;
+import de.bitbrain.jpersis.drivers.sqllite.SQLiteQuery;
+import de.bitbrain.jpersis.util.Naming;
+
+/**
+ * Base implementation for file based SQLite drivers which support transactions. The connection is kept open for the
+ * whole session, which allows prepared statements to be compiled only once. All threads share the connection, so a
+ * transaction holds the driver lock from begin to end and other threads wait instead of joining it.
+ *
+ * @author Miguel Gonzalez <miguel-gonzalez@gmx.de>
+ * @since 1.0
+ * @version 1.0
+ */
+public abstract class AbstractSQLiteDriver extends JDBCDriver implements UnitOfWork, PreparedQueries {
+
+  private String file;
+
+  private final StatementCache statementCache = new StatementCache();
+
+  // Table names by model
+  private final Map<Class<?>, String> tables = new HashMap<Class<?>, String>();
+
+  // Guards the connection, is held by a transaction until it ends
+  private final ReentrantLock lock = new ReentrantLock();
+
+  // Number of nested transactions of the thread which holds the lock
+  private int depth;
+
+  private boolean rollbackOnly;
+
+  // Listeners of the current transaction
+  private final List<Listener> listeners = new ArrayList<Listener>();
+
+  private ConnectionProfile profile;
+
+  // Settings which were applied to the last connection
+  private List<String> pragmas = Collections.emptyList();
+
+  public AbstractSQLiteDriver(String file) {
+    super("", "", "", "", "");
+    this.file = file;
+    profile = getDefaultProfile();
+  }
+
+  /**
+   * Provides the connection profile of the platform
+   * 
+   * @return default connection profile
+   */
+  protected ConnectionProfile getDefaultProfile() {
+    return ConnectionProfile.desktop();
+  }
+
+  /**
+   * Sets the connection profile. Is applied with the next connection.
+   * 
+   * @param profile
+   *          new connection profile
+   */
+  public void setProfile(ConnectionProfile profile) {
+    lock.lock();
+    try {
+      this.profile = profile;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Provides the settings which have been applied to the current connection
+   * 
+   * @return applied settings, e.g. journal_mode=wal
+   */
+  public List<String> getPragmas() {
+    lock.lock();
+    try {
+      return pragmas;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Provides the class name of the JDBC driver
+   * 
+   * @return JDBC driver class
+   */
+  protected abstract String getDriverClass();
+
+  /**
+   * Provides the connection URL of the given database file
+   * 
+   * @param file
+   *          path to the database file
+   * @return JDBC connection URL
+   */
+  protected abstract String getConnectionURL(String file);
+
+  @Override
+  protected String getURL(String host, String port, String database) {
+    return getConnectionURL(file);
+  }
+
+  @Override
+  protected Query createQuery(Class<?> model, Naming naming) {
+    return new SQLiteQuery(model, naming, statement);
+  }
+
+  @Override
+  public void connect() {
+    lock.lock();
+    try {
+      if (connection == null || connection.isClosed()) {
+        Class.forName(getDriverClass());
+        connection = DriverManager.getConnection(getConnectionURL(file));
+        try {
+          statement = connection.createStatement();
+          pragmas = profile.apply(statement);
+        } catch (SQLException e) {
+          // Otherwise the next call would use the half configured connection
+          closeQuietly();
+          throw e;
+        }
+        if (Gdx.app != null) {
+          Gdx.app.log("INFO", "Connected to database with " + pragmas);
+        }
+      }
+    } catch (ClassNotFoundException e) {
+      throw new JPersisException(e);
+    } catch (SQLException e) {
+      throw new JPersisException(e);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public Object commit(Query query, Class<?> model, Object[] args, Class<?> returnType, Naming naming)
+      throws DriverException {
+    lock.lock();
+    try {
+      return super.commit(query, model, args, returnType, naming);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public void close() {
+    // Keep the connection open for the session, see disconnect()
+  }
+
+  /**
+   * Closes the connection and all cached statements
+   */
+  public void disconnect() {
+    lock.lock();
+    try {
+      if (connection != null) {
+        statementCache.clear();
+        tables.clear();
+        try {
+          statement.close();
+          connection.close();
+        } catch (SQLException e) {
+          throw new JPersisException(e);
+        }
+      }
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public <T> List<T> select(PreparedSelect<T> select, Object[] args) throws SQLException {
+    lock.lock();
+    try {
+      connect();
+      String table = resolveTable(select.getModel());
+      if (table == null) {
+        // Not created yet, the mapper of jpersis creates it
+        return null;
+      }
+      PreparedStatement prepared = statementCache.get(connection, select.getKey(), select.toSql(table));
+      select.bind(prepared, args);
+      ResultSet result = prepared.executeQuery();
+      try {
+        return select.map(result);
+      } finally {
+        result.close();
+      }
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public String getTable(Class<?> model) throws SQLException {
+    lock.lock();
+    try {
+      connect();
+      return resolveTable(model);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public int getCacheHits() {
+    lock.lock();
+    try {
+      return statementCache.getHits();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public int getCacheMisses() {
+    lock.lock();
+    try {
+      return statementCache.getMisses();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public void begin() {
+    // Is held until the transaction ends, so other threads neither write into it nor see its changes
+    lock.lock();
+    if (depth == 0) {
+      try {
+        connect();
+        connection.setAutoCommit(false);
+      } catch (SQLException e) {
+        lock.unlock();
+        throw new JPersisException(e);
+      } catch (RuntimeException e) {
+        lock.unlock();
+        throw e;
+      }
+      rollbackOnly = false;
+    }
+    depth++;
+  }
+
+  @Override
+  public void commit() {
+    end(false);
+  }
+
+  @Override
+  public void rollback() {
+    end(true);
+  }
+
+  @Override
+  public void addListener(Listener listener) {
+    if (lock.isHeldByCurrentThread() && depth > 0) {
+      listeners.add(listener);
+    } else {
+      listener.onEnd(true);
+    }
+  }
+
+  @Override
+  public int[] executeBatch(String... statements) {
+    boolean success = false;
+    begin();
+    try {
+      Statement batch = connection.createStatement();
+      try {
+        for (String sql : statements) {
+          batch.addBatch(sql);
+        }
+        int[] result = batch.executeBatch();
+        success = true;
+        return result;
+      } finally {
+        batch.close();
+      }
+    } catch (SQLException e) {
+      throw new JPersisException(e);
+    } finally {
+      if (success) {
+        commit();
+      } else {
+        rollback();
+      }
+    }
+  }
+
+  private String resolveTable(Class<?> model) throws SQLException {
+    String table = tables.get(model);
+    if (table == null) {
+      String name = PreparedSelect.normalize(model.getSimpleName());
+      Statement lookup = connection.createStatement();
+      try {
+        ResultSet result = lookup.executeQuery("SELECT name FROM sqlite_master WHERE type = 'table'");
+        try {
+          while (result.next()) {
+            String candidate = PreparedSelect.normalize(result.getString(1));
+            if (candidate.equals(name) || candidate.equals(name + "s")) {
+              if (table != null) {
+                throw new SQLException("Tables " + table + " and " + result.getString(1) + " both match "
+                    + model.getName());
+              }
+              table = "\"" + result.getString(1) + "\"";
+            }
+          }
+        } finally {
+          result.close();
+        }
+      } finally {
+        lookup.close();
+      }
+      // Tables are created on first use, try again later
+      if (table != null) {
+        tables.put(model, table);
+      }
+    }
+    return table;
+  }
+
+  private void end(boolean rollback) {
+    if (!lock.isHeldByCurrentThread() || depth == 0) {
+      throw new IllegalStateException("No transaction active.");
+    }
+    List<Listener> ended = null;
+    boolean committed = false;
+    boolean failed = false;
+    try {
+      rollbackOnly |= rollback;
+      if (--depth == 0) {
+        ended = new ArrayList<Listener>(listeners);
+        listeners.clear();
+        // A commit which has to roll back fails, so the caller does not assume its changes were written
+        failed = rollbackOnly && !rollback;
+        try {
+          if (rollbackOnly) {
+            connection.rollback();
+          } else {
+            connection.commit();
+            committed = true;
+          }
+        } catch (SQLException e) {
+          throw new JPersisException(e);
+        } finally {
+          restoreAutoCommit();
+        }
+      }
+    } finally {
+      lock.unlock();
+      // Listeners update caches, they must not hold the lock while doing so
+      if (ended != null) {
+        for (Listener listener : ended) {
+          listener.onEnd(committed);
+        }
+      }
+    }
+    if (failed) {
+      throw new JPersisException("Transaction has been rolled back, since a nested transaction failed.");
+    }
+  }
+
+  private void closeQuietly() {
+    try {
+      connection.close();
+    } catch (SQLException e) {
+      // Is discarded anyway
+    }
+    connection = null;
+    statement = null;
+  }
+
+  private void restoreAutoCommit() {
+    try {
+      connection.setAutoCommit(true);
+    } catch (SQLException e) {
+      throw new JPersisException(e);
+    }
+  }
+}
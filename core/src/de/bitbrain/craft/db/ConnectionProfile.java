@@ -0,0 +1,157 @@
+/*
+ * Craft - Crafting game for Android, PC and Browser.
+ * Copyright (C) 2014 Miguel Gonzalez
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+
+package de.bitbrain.craft.db;
+
+import com.badlogic.gdx.Gdx;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * SQLite settings which are applied to every new connection. Settings which are null keep the SQLite default.
+ *
+ * @author Miguel Gonzalez <miguel-gonzalez@gmx.de>
+ * @since 1.0
+ * @version 1.0
+ */
+public class ConnectionProfile {
+
+  public static enum JournalMode {
+    DELETE, TRUNCATE, PERSIST, MEMORY, WAL, OFF
+  }
+
+  public static enum Synchronous {
+    OFF, NORMAL, FULL
+  }
+
+  public static enum TempStore {
+    DEFAULT, FILE, MEMORY
+  }
+
+  private JournalMode journalMode;
+
+  private Synchronous synchronous;
+
+  // Positive values are pages, negative values are KiB
+  private Integer cacheSize;
+
+  // Maximum number of bytes which are memory mapped, 0 disables memory mapping
+  private Long mmapSize;
+
+  private TempStore tempStore;
+
+  /**
+   * Profile for desktop machines. Writes do not wait for the disk within a transaction, only at checkpoints.
+   * 
+   * @return new profile
+   */
+  public static ConnectionProfile desktop() {
+    return new ConnectionProfile().journalMode(JournalMode.WAL).synchronous(Synchronous.NORMAL).cacheSize(-8192)
+        .mmapSize(64L * 1024L * 1024L).tempStore(TempStore.MEMORY);
+  }
+
+  /**
+   * Profile for Android devices. Uses less memory than the desktop profile and no memory mapping, which is not
+   * reliable on every device.
+   * 
+   * @return new profile
+   */
+  public static ConnectionProfile android() {
+    return new ConnectionProfile().journalMode(JournalMode.WAL).synchronous(Synchronous.NORMAL).cacheSize(-2048)
+        .mmapSize(0L).tempStore(TempStore.MEMORY);
+  }
+
+  public ConnectionProfile journalMode(JournalMode journalMode) {
+    this.journalMode = journalMode;
+    return this;
+  }
+
+  public ConnectionProfile synchronous(Synchronous synchronous) {
+    this.synchronous = synchronous;
+    return this;
+  }
+
+  public ConnectionProfile cacheSize(Integer cacheSize) {
+    this.cacheSize = cacheSize;
+    return this;
+  }
+
+  public ConnectionProfile mmapSize(Long mmapSize) {
+    this.mmapSize = mmapSize;
+    return this;
+  }
+
+  public ConnectionProfile tempStore(TempStore tempStore) {
+    this.tempStore = tempStore;
+    return this;
+  }
+
+  /**
+   * Applies all settings to a connection. Must not be called within a transaction. A setting which fails, e.g. because
+   * the driver does not support it, is skipped, so the connection keeps its default for it.
+   * 
+   * @param statement
+   *          statement of the connection
+   * @return applied settings with the values SQLite reports afterwards, e.g. journal_mode=wal or journal_mode=failed
+   */
+  public List<String> apply(Statement statement) {
+    List<String> applied = new ArrayList<String>();
+    apply(statement, "journal_mode", journalMode, applied);
+    apply(statement, "synchronous", synchronous, applied);
+    apply(statement, "cache_size", cacheSize, applied);
+    apply(statement, "mmap_size", mmapSize, applied);
+    apply(statement, "temp_store", tempStore, applied);
+    return applied;
+  }
+
+  private void apply(Statement statement, String pragma, Object value, List<String> applied) {
+    if (value == null) {
+      return;
+    }
+    try {
+      applied.add(pragma + "=" + set(statement, pragma, value));
+    } catch (SQLException e) {
+      applied.add(pragma + "=failed");
+      if (Gdx.app != null) {
+        Gdx.app.error("ERROR", "Unable to set " + pragma + " to " + value + ", skipped it.", e);
+      }
+    }
+  }
+
+  private String set(Statement statement, String pragma, Object value) throws SQLException {
+    statement.execute("PRAGMA " + pragma + " = " + value);
+    // Read back the value, SQLite silently ignores values it does not support
+    String actual = "unsupported";
+    if (statement.execute("PRAGMA " + pragma)) {
+      ResultSet result = statement.getResultSet();
+      try {
+        if (result.next()) {
+          actual = result.getString(1);
+        }
+      } finally {
+        result.close();
+      }
+    }
+    return actual;
+  }
+}
@@ -0,0 +1,229 @@
+/*
+ * Craft - Crafting game for Android, PC and Browser.
+ * Copyright (C) 2014 Miguel Gonzalez
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+
+package de.bitbrain.craft.db;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import com.badlogic.gdx.Gdx;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.ListeningExecutorService;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import com.google.inject.Singleton;
+
+import de.bitbrain.craft.Settings;
+
+/**
+ * Single writer of the datastore. All background work on the database (loading, migrations, flushing caches and
+ * asynchronous API calls) runs in submission order on one dedicated thread. The queue of pending tasks is bounded, tasks
+ * which do not fit anymore fail immediately instead of blocking the caller.
+ *
+ * @author Miguel Gonzalez <miguel-gonzalez@gmx.de>
+ * @since 1.0
+ * @version 1.0
+ */
+@Singleton
+public class DatabaseExecutor {
+
+  private static final int SHUTDOWN_TIMEOUT = 5;
+
+  private final ListeningExecutorService executor;
+
+  // Submits periodic tasks, never touches the database itself
+  private final ScheduledExecutorService scheduler;
+
+  // Thread which runs the tasks, is known once the first task has been submitted
+  private volatile Thread thread;
+
+  public DatabaseExecutor() {
+    final ThreadFactory factory = new ThreadFactoryBuilder().setNameFormat("database").setDaemon(true).build();
+    executor =
+        MoreExecutors.listeningDecorator(new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<Runnable>(Settings.DB_QUEUE_SIZE), new ThreadFactory() {
+              @Override
+              public Thread newThread(Runnable r) {
+                thread = factory.newThread(r);
+                return thread;
+              }
+            }));
+    scheduler =
+        Executors.newSingleThreadScheduledExecutor(new ThreadFactoryBuilder().setNameFormat("database-scheduler")
+            .setDaemon(true).build());
+  }
+
+  /**
+   * Checks if the caller runs on the database thread
+   * 
+   * @return true if called by a task of this executor
+   */
+  public boolean isDatabaseThread() {
+    return Thread.currentThread() == thread;
+  }
+
+  /**
+   * Checks if the caller may access the datastore directly. This is the database thread, or any thread after shutdown,
+   * when it is the only thread left to access the database.
+   * 
+   * @return true if the caller may access the datastore
+   */
+  public boolean isAccessible() {
+    return isDatabaseThread() || awaitShutdown();
+  }
+
+  /**
+   * Runs a task on the database thread
+   * 
+   * @param task
+   *          task to run
+   * @return future of the result. Fails if the queue is full
+   */
+  public <T> ListenableFuture<T> submit(Callable<T> task) {
+    try {
+      return executor.submit(task);
+    } catch (RejectedExecutionException e) {
+      return rejected(e);
+    }
+  }
+
+  /**
+   * Runs a task on the database thread
+   * 
+   * @param task
+   *          task to run
+   * @return future which completes after the task has run. Fails if the queue is full
+   */
+  public ListenableFuture<?> submit(Runnable task) {
+    try {
+      return executor.submit(task);
+    } catch (RejectedExecutionException e) {
+      return rejected(e);
+    }
+  }
+
+  /**
+   * Runs a task repeatedly on the database thread until shutdown
+   * 
+   * @param task
+   *          task to run
+   * @param interval
+   *          delay between the end of a run and the next submission in seconds
+   */
+  public void schedule(final Runnable task, long interval) {
+    scheduler.scheduleWithFixedDelay(new Runnable() {
+      @Override
+      public void run() {
+        submit(task);
+      }
+    }, interval, interval, TimeUnit.SECONDS);
+  }
+
+  /**
+   * Runs a task on the database thread and waits until it has run. Tasks of the database thread itself run directly.
+   * After shutdown the task runs on the caller, which is the only thread left to access the database.
+   * 
+   * @param task
+   *          task to run
+   * @return result of the task
+   * @throws UncheckedExecutionException
+   *           if the task failed with a checked exception
+   */
+  public <T> T call(Callable<T> task) {
+    if (isAccessible()) {
+      try {
+        return task.call();
+      } catch (RuntimeException e) {
+        throw e;
+      } catch (Exception e) {
+        throw new UncheckedExecutionException(e);
+      }
+    }
+    try {
+      return submit(task).get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new UncheckedExecutionException(e);
+    } catch (ExecutionException e) {
+      Throwable cause = e.getCause();
+      if (cause instanceof RuntimeException) {
+        throw (RuntimeException) cause;
+      } else if (cause instanceof Error) {
+        throw (Error) cause;
+      }
+      throw new UncheckedExecutionException(cause);
+    }
+  }
+
+  /**
+   * Runs a task on the database thread and waits until it has run
+   * 
+   * @param task
+   *          task to run
+   * @see #call(Callable)
+   */
+  public void run(Runnable task) {
+    call(Executors.callable(task));
+  }
+
+  /**
+   * Stops scheduled tasks, stops accepting new tasks and waits until all pending tasks have run
+   */
+  public void shutdown() {
+    scheduler.shutdownNow();
+    executor.shutdown();
+    try {
+      if (!executor.awaitTermination(SHUTDOWN_TIMEOUT, TimeUnit.SECONDS)) {
+        Gdx.app.error("ERROR", "Database thread did not finish within " + SHUTDOWN_TIMEOUT + " seconds.");
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private <T> ListenableFuture<T> rejected(RejectedExecutionException e) {
+    if (executor.isShutdown()) {
+      Gdx.app.error("ERROR", "Database thread has been shut down, rejected task.");
+    } else {
+      Gdx.app.error("ERROR", "Database queue is full, rejected task.", e);
+    }
+    return Futures.immediateFailedFuture(e);
+  }
+
+  private boolean awaitShutdown() {
+    if (!executor.isShutdown()) {
+      return false;
+    }
+    try {
+      executor.awaitTermination(SHUTDOWN_TIMEOUT, TimeUnit.SECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    return true;
+  }
+}
@@ -0,0 +1,73 @@
+/*
+ * Craft - Crafting game for Android, PC and Browser.
+ * Copyright (C) 2014 Miguel Gonzalez
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+
+package de.bitbrain.craft.db;
+
+/**
+ * Selects the database the game runs on. Profiles other than {@link #FILE} do not require a running LibGDX application,
+ * so the persistence layer can be used headless, e.g. in tests and benchmarks. The default profile can be set with the
+ * system property {@value #PROPERTY}.
+ *
+ * @author Miguel Gonzalez <miguel-gonzalez@gmx.de>
+ * @since 1.0
+ * @version 1.0
+ */
+public enum DriverProfile {
+
+  // Database file within the external storage of the game
+  FILE(false),
+
+  // Database which only lives in memory as long as the connection is open
+  MEMORY(true),
+
+  // Database file within the temporary directory, is deleted on exit
+  TEMP_FILE(true);
+
+  public static final String PROPERTY = "craft.db.profile";
+
+  private final boolean headless;
+
+  private DriverProfile(boolean headless) {
+    this.headless = headless;
+  }
+
+  /**
+   * @return true if the profile does not depend on LibGDX
+   */
+  public boolean isHeadless() {
+    return headless;
+  }
+
+  /**
+   * Provides the profile configured by the system property {@value #PROPERTY}
+   * 
+   * @return configured profile, {@link #FILE} by default
+   */
+  public static DriverProfile getDefault() {
+    String value = System.getProperty(PROPERTY);
+    if (value != null) {
+      for (DriverProfile profile : values()) {
+        if (profile.name().equalsIgnoreCase(value)) {
+          return profile;
+        }
+      }
+    }
+    return FILE;
+  }
+}
@@ -19,7 +19,10 @@
 
 package de.bitbrain.craft.db;
 
+import java.io.File;
 import java.io.IOException;
+import java.sql.SQLException;
+import java.util.List;
 
 import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.Application.ApplicationType;
@@ -29,7 +32,6 @@ import de.bitbrain.craft.Settings;
 import de.bitbrain.jpersis.drivers.Driver;
 import de.bitbrain.jpersis.drivers.DriverException;
 import de.bitbrain.jpersis.drivers.Query;
-import de.bitbrain.jpersis.drivers.sqllite.SQLiteDriver;
 import de.bitbrain.jpersis.util.Naming;
 
 /**
@@ -41,36 +43,92 @@ import de.bitbrain.jpersis.util.Naming;
  */
 public final class DriverProvider {
 
+  private static final String MEMORY_DATABASE = ":memory:";
+
   private static LibGdxDriver driver;
 
+  private static DriverProfile profile = DriverProfile.FILE;
+
   public static Driver getDriver() {
-    driver = new LibGdxDriver();
-    return driver;
+    return driver();
+  }
+
+  public static UnitOfWork getUnitOfWork() {
+    return driver();
+  }
+
+  public static PreparedQueries getPreparedQueries() {
+    return driver();
+  }
+
+  /**
+   * Sets the profile of the database. Has no effect after the driver has been initialized.
+   * 
+   * @param profile
+   *          new profile
+   */
+  public static void setProfile(DriverProfile profile) {
+    DriverProvider.profile = profile;
+  }
+
+  public static DriverProfile getProfile() {
+    return profile;
   }
 
   public static void initialize() {
-    if (driver != null && !driver.isLoaded()) {
-      FileHandle handle = setup();
-      driver.load(handle.file().getAbsolutePath());
+    LibGdxDriver driver = driver();
+    if (!driver.isLoaded()) {
+      switch (profile) {
+        case MEMORY:
+          driver.load(new DesktopSQLiteDriver(MEMORY_DATABASE));
+          break;
+        case TEMP_FILE:
+          driver.load(new DesktopSQLiteDriver(createTempFile()));
+          break;
+        default:
+          String path = setup().file().getAbsolutePath();
+          if (Gdx.app.getType().equals(ApplicationType.Android)) {
+            driver.load(new SQLDroidDriver(path));
+          } else {
+            driver.load(new DesktopSQLiteDriver(path));
+          }
+      }
     }
   }
 
-  private static class LibGdxDriver implements Driver {
+  public static void dispose() {
+    if (driver != null && driver.isLoaded()) {
+      if (!profile.isHeadless()) {
+        Gdx.app.log("INFO", "Statement cache: " + driver.getCacheHits() + " hits, " + driver.getCacheMisses()
+            + " misses.");
+      }
+      driver.disconnect();
+    }
+  }
 
-    private Driver driver;
+  private static LibGdxDriver driver() {
+    if (driver == null) {
+      driver = new LibGdxDriver();
+    }
+    return driver;
+  }
 
-    public void load(String path) {
-      if (Gdx.app.getType().equals(ApplicationType.Android)) {
-        driver = new SQLDroidDriver(path);
-      } else {
-        driver = new SQLiteDriver(path);
-      }
+  private static class LibGdxDriver implements Driver, UnitOfWork, PreparedQueries {
+
+    private AbstractSQLiteDriver driver;
+
+    public void load(AbstractSQLiteDriver driver) {
+      this.driver = driver;
     }
 
     public boolean isLoaded() {
       return driver != null;
     }
 
+    public void disconnect() {
+      loaded().disconnect();
+    }
+
     /*
      * (non-Javadoc)
      * 
@@ -124,6 +182,113 @@ public final class DriverProvider {
       }
     }
 
+    /*
+     * (non-Javadoc)
+     * 
+     * @see de.bitbrain.craft.db.UnitOfWork#begin()
+     */
+    @Override
+    public void begin() {
+      loaded().begin();
+    }
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see de.bitbrain.craft.db.UnitOfWork#commit()
+     */
+    @Override
+    public void commit() {
+      loaded().commit();
+    }
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see de.bitbrain.craft.db.UnitOfWork#rollback()
+     */
+    @Override
+    public void rollback() {
+      loaded().rollback();
+    }
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see de.bitbrain.craft.db.UnitOfWork#addListener(de.bitbrain.craft.db.UnitOfWork.Listener)
+     */
+    @Override
+    public void addListener(Listener listener) {
+      loaded().addListener(listener);
+    }
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see de.bitbrain.craft.db.UnitOfWork#executeBatch(java.lang.String[])
+     */
+    @Override
+    public int[] executeBatch(String... statements) {
+      return loaded().executeBatch(statements);
+    }
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see de.bitbrain.craft.db.PreparedQueries#select(de.bitbrain.craft.db.PreparedSelect, java.lang.Object[])
+     */
+    @Override
+    public <T> List<T> select(PreparedSelect<T> select, Object[] args) throws SQLException {
+      return loaded().select(select, args);
+    }
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see de.bitbrain.craft.db.PreparedQueries#getTable(java.lang.Class)
+     */
+    @Override
+    public String getTable(Class<?> model) throws SQLException {
+      return loaded().getTable(model);
+    }
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see de.bitbrain.craft.db.PreparedQueries#getCacheHits()
+     */
+    @Override
+    public int getCacheHits() {
+      return driver != null ? driver.getCacheHits() : 0;
+    }
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see de.bitbrain.craft.db.PreparedQueries#getCacheMisses()
+     */
+    @Override
+    public int getCacheMisses() {
+      return driver != null ? driver.getCacheMisses() : 0;
+    }
+
+    private AbstractSQLiteDriver loaded() {
+      if (driver != null) {
+        return driver;
+      } else {
+        throw new RuntimeException("Driver is not initialized yet.");
+      }
+    }
+  }
+
+  private static String createTempFile() {
+    try {
+      File file = File.createTempFile("craft", ".db");
+      file.deleteOnExit();
+      return file.getAbsolutePath();
+    } catch (IOException e) {
+      throw new RuntimeException("Unable to create temporary database.", e);
+    }
   }
 
   private static FileHandle setup() {
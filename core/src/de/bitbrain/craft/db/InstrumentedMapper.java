@@ -0,0 +1,72 @@
+/*
+ * Craft - Crafting game for Android, PC and Browser.
+ * Copyright (C) 2014 Miguel Gonzalez
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+
+package de.bitbrain.craft.db;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.HashMap;
+import java.util.Map;
+
+import de.bitbrain.craft.db.MapperMetrics.Recorder;
+
+/**
+ * Decorates a mapper and records the latency of every call in {@link MapperMetrics}
+ *
+ * @author Miguel Gonzalez <miguel-gonzalez@gmx.de>
+ * @since 1.0
+ * @version 1.0
+ */
+class InstrumentedMapper implements InvocationHandler {
+
+  private final Object mapper;
+
+  private final Map<Method, Recorder> recorders;
+
+  private InstrumentedMapper(Object mapper, Class<?> type, MapperMetrics metrics) {
+    this.mapper = mapper;
+    recorders = new HashMap<Method, Recorder>();
+    for (Method method : type.getMethods()) {
+      recorders.put(method, metrics.getRecorder(type.getSimpleName() + "." + method.getName()));
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  public static <T> T wrap(T mapper, Class<T> type, MapperMetrics metrics) {
+    return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] { type }, new InstrumentedMapper(mapper,
+        type, metrics));
+  }
+
+  @Override
+  public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+    Recorder recorder = recorders.get(method);
+    long start = System.nanoTime();
+    try {
+      return method.invoke(mapper, args);
+    } catch (InvocationTargetException e) {
+      throw e.getCause();
+    } finally {
+      if (recorder != null) {
+        recorder.record(System.nanoTime() - start);
+      }
+    }
+  }
+}
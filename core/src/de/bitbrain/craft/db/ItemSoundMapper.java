@@ -39,6 +39,9 @@ import de.bitbrain.jpersis.annotations.Update;
 @Mapper("de.bitbrain.craft.models.ItemSound")
 public interface ItemSoundMapper {
 
+  @Select
+  Collection<ItemSound> findAll();
+
   @Select(condition = "id = $1")
   ItemSound findById(String id);
 
@@ -0,0 +1,48 @@
+/*
+ * Craft - Crafting game for Android, PC and Browser.
+ * Copyright (C) 2014 Miguel Gonzalez
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+
+package de.bitbrain.craft.db;
+
+import com.google.inject.Inject;
+
+import de.bitbrain.jpersis.JPersis;
+
+/**
+ * Creates data mappers. Selects of the mappers are executed as cached prepared statements and all calls are measured
+ * by {@link MapperMetrics}.
+ *
+ * @author Miguel Gonzalez <miguel-gonzalez@gmx.de>
+ * @since 1.0
+ * @version 1.0
+ */
+public class MapperFactory {
+
+  @Inject
+  private JPersis jpersis;
+
+  @Inject
+  private PreparedQueries queries;
+
+  @Inject
+  private MapperMetrics metrics;
+
+  public <T> T map(Class<T> mapper) {
+    return InstrumentedMapper.wrap(PreparedMapper.wrap(jpersis.map(mapper), mapper, queries), mapper, metrics);
+  }
+}
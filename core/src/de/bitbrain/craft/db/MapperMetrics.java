@@ -0,0 +1,167 @@
+/*
+ * Craft - Crafting game for Android, PC and Browser.
+ * Copyright (C) 2014 Miguel Gonzalez
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+
+package de.bitbrain.craft.db;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import com.badlogic.gdx.Gdx;
+import com.google.inject.Singleton;
+
+/**
+ * Collects the latency of all mapper calls. For each mapper method the number of calls, the total and maximum time and
+ * a latency histogram are recorded.
+ *
+ * @author Miguel Gonzalez <miguel-gonzalez@gmx.de>
+ * @since 1.0
+ * @version 1.0
+ */
+@Singleton
+public class MapperMetrics {
+
+  // Upper bounds of the histogram buckets in microseconds, the last bucket is unbounded
+  static final long[] BUCKETS = { 50, 100, 250, 500, 1000, 2500, 5000, 10000, 25000, 50000, 100000 };
+
+  private final ConcurrentMap<String, Recorder> recorders = new ConcurrentHashMap<String, Recorder>();
+
+  /**
+   * Provides the recorder of a mapper method. Is resolved once per method, not per call.
+   * 
+   * @param name
+   *          name of the method, e.g. OwnedItemMapper.findById
+   * @return recorder of the method
+   */
+  Recorder getRecorder(String name) {
+    Recorder recorder = recorders.get(name);
+    if (recorder == null) {
+      Recorder created = new Recorder(name);
+      recorder = recorders.putIfAbsent(name, created);
+      if (recorder == null) {
+        recorder = created;
+      }
+    }
+    return recorder;
+  }
+
+  /**
+   * Provides the current statistics of all called mapper methods
+   * 
+   * @return statistics ordered by total time, the slowest first
+   */
+  public List<MapperStats> getStats() {
+    List<MapperStats> stats = new ArrayList<MapperStats>();
+    for (Recorder recorder : recorders.values()) {
+      MapperStats snapshot = recorder.snapshot();
+      if (snapshot.getCount() > 0) {
+        stats.add(snapshot);
+      }
+    }
+    Collections.sort(stats, new Comparator<MapperStats>() {
+      @Override
+      public int compare(MapperStats a, MapperStats b) {
+        if (a.getTotalNanos() == b.getTotalNanos()) {
+          return a.getName().compareTo(b.getName());
+        }
+        return a.getTotalNanos() > b.getTotalNanos() ? -1 : 1;
+      }
+    });
+    return stats;
+  }
+
+  /**
+   * Resets all statistics
+   */
+  public void reset() {
+    for (Recorder recorder : recorders.values()) {
+      recorder.reset();
+    }
+  }
+
+  /**
+   * Writes the current statistics to the log
+   */
+  public void dump() {
+    List<MapperStats> stats = getStats();
+    if (stats.isEmpty()) {
+      Gdx.app.log("INFO", "No mapper calls recorded.");
+      return;
+    }
+    Gdx.app.log("INFO", "Mapper calls (calls, total ms, avg ms, p95 ms, max ms):");
+    for (MapperStats s : stats) {
+      Gdx.app.log("INFO", String.format("  %-40s %6d %9.2f %7.3f %7.3f %7.3f", s.getName(), s.getCount(),
+          s.getTotalMillis(), s.getAverageMillis(), s.getPercentileMillis(0.95f), s.getMaxMillis()));
+    }
+  }
+
+  static class Recorder {
+
+    private final String name;
+
+    private final AtomicLong count = new AtomicLong();
+
+    private final AtomicLong total = new AtomicLong();
+
+    private final AtomicLong max = new AtomicLong();
+
+    private final AtomicLongArray histogram = new AtomicLongArray(BUCKETS.length + 1);
+
+    Recorder(String name) {
+      this.name = name;
+    }
+
+    void record(long nanos) {
+      count.incrementAndGet();
+      total.addAndGet(nanos);
+      long current = max.get();
+      while (nanos > current && !max.compareAndSet(current, nanos)) {
+        current = max.get();
+      }
+      long micros = nanos / 1000L;
+      int bucket = 0;
+      while (bucket < BUCKETS.length && micros > BUCKETS[bucket]) {
+        bucket++;
+      }
+      histogram.incrementAndGet(bucket);
+    }
+
+    MapperStats snapshot() {
+      long[] buckets = new long[histogram.length()];
+      for (int i = 0; i < buckets.length; ++i) {
+        buckets[i] = histogram.get(i);
+      }
+      return new MapperStats(name, count.get(), total.get(), max.get(), buckets);
+    }
+
+    void reset() {
+      count.set(0);
+      total.set(0);
+      max.set(0);
+      for (int i = 0; i < histogram.length(); ++i) {
+        histogram.set(i, 0);
+      }
+    }
+  }
+}
@@ -0,0 +1,126 @@
+/*
+ * Craft - Crafting game for Android, PC and Browser.
+ * Copyright (C) 2014 Miguel Gonzalez
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+
+package de.bitbrain.craft.db;
+
+/**
+ * Snapshot of the latency statistics of a single mapper method
+ *
+ * @author Miguel Gonzalez <miguel-gonzalez@gmx.de>
+ * @since 1.0
+ * @version 1.0
+ */
+public class MapperStats {
+
+  private final String name;
+
+  private final long count;
+
+  private final long totalNanos;
+
+  private final long maxNanos;
+
+  private final long[] histogram;
+
+  MapperStats(String name, long count, long totalNanos, long maxNanos, long[] histogram) {
+    this.name = name;
+    this.count = count;
+    this.totalNanos = totalNanos;
+    this.maxNanos = maxNanos;
+    this.histogram = histogram;
+  }
+
+  /**
+   * @return name of the mapper method, e.g. OwnedItemMapper.findById
+   */
+  public String getName() {
+    return name;
+  }
+
+  public long getCount() {
+    return count;
+  }
+
+  public long getTotalNanos() {
+    return totalNanos;
+  }
+
+  public float getTotalMillis() {
+    return totalNanos / 1000000f;
+  }
+
+  public float getAverageMillis() {
+    return count > 0 ? getTotalMillis() / count : 0f;
+  }
+
+  public float getMaxMillis() {
+    return maxNanos / 1000000f;
+  }
+
+  /**
+   * Returns the number of calls within a histogram bucket
+   * 
+   * @param bucket
+   *          index of the bucket
+   * @return number of calls
+   */
+  public long getBucketCount(int bucket) {
+    return histogram[bucket];
+  }
+
+  /**
+   * @return number of histogram buckets
+   */
+  public int getBucketSize() {
+    return histogram.length;
+  }
+
+  /**
+   * Returns the upper bound of a histogram bucket
+   * 
+   * @param bucket
+   *          index of the bucket
+   * @return upper bound in microseconds, is {@link Long#MAX_VALUE} for the last bucket
+   */
+  public long getBucketBound(int bucket) {
+    return bucket < MapperMetrics.BUCKETS.length ? MapperMetrics.BUCKETS[bucket] : Long.MAX_VALUE;
+  }
+
+  /**
+   * Estimates a percentile of the latency from the histogram
+   * 
+   * @param percentile
+   *          percentile between 0 and 1
+   * @return upper bound of the bucket which contains the percentile in milliseconds. Is the maximum latency for the
+   *         last bucket.
+   */
+  public float getPercentileMillis(float percentile) {
+    long rank = (long) Math.ceil(percentile * count);
+    long seen = 0;
+    for (int i = 0; i < histogram.length; ++i) {
+      seen += histogram[i];
+      if (seen >= rank && i < MapperMetrics.BUCKETS.length) {
+        return Math.min(MapperMetrics.BUCKETS[i] / 1000f, getMaxMillis());
+      } else if (seen >= rank) {
+        break;
+      }
+    }
+    return getMaxMillis();
+  }
+}
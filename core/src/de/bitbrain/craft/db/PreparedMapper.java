@@ -0,0 +1,115 @@
+/*
+ * Craft - Crafting game for Android, PC and Browser.
+ * Copyright (C) 2014 Miguel Gonzalez
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+
+package de.bitbrain.craft.db;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.badlogic.gdx.Gdx;
+
+import de.bitbrain.jpersis.annotations.Mapper;
+import de.bitbrain.jpersis.annotations.Select;
+
+/**
+ * Decorates a mapper and executes its selects as prepared statements. Calls which can not be prepared are delegated to
+ * the original mapper. A select which fails to map its table is disabled and delegated from then on.
+ *
+ * @author Miguel Gonzalez <miguel-gonzalez@gmx.de>
+ * @since 1.0
+ * @version 1.0
+ */
+class PreparedMapper implements InvocationHandler {
+
+  private final Object mapper;
+
+  private final PreparedQueries queries;
+
+  private final Map<Method, PreparedSelect<?>> selects;
+
+  private PreparedMapper(Object mapper, Class<?> type, PreparedQueries queries) {
+    this.mapper = mapper;
+    this.queries = queries;
+    selects = new ConcurrentHashMap<Method, PreparedSelect<?>>();
+    Class<?> model = getModel(type);
+    if (model != null) {
+      for (Method method : type.getMethods()) {
+        Select select = method.getAnnotation(Select.class);
+        if (select != null) {
+          String key = type.getSimpleName() + "." + method.getName() + ": " + select.condition();
+          PreparedSelect<?> prepared = PreparedSelect.create(key, model, select.condition());
+          if (prepared != null) {
+            selects.put(method, prepared);
+          }
+        }
+      }
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  public static <T> T wrap(T mapper, Class<T> type, PreparedQueries queries) {
+    return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] { type }, new PreparedMapper(mapper, type,
+        queries));
+  }
+
+  @Override
+  public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+    PreparedSelect<?> select = selects.get(method);
+    if (select != null) {
+      try {
+        List<?> result = queries.select(select, args);
+        if (result != null) {
+          if (Collection.class.isAssignableFrom(method.getReturnType())) {
+            return result;
+          } else {
+            return result.isEmpty() ? null : result.get(0);
+          }
+        }
+      } catch (SQLException e) {
+        // The mapping differs from the one of jpersis, its mapper is used from now on
+        selects.remove(method);
+        Gdx.app.error("ERROR", "Unable to execute prepared statement '" + select.getKey() + "', disabled it.", e);
+      }
+    }
+    try {
+      return method.invoke(mapper, args);
+    } catch (InvocationTargetException e) {
+      throw e.getCause();
+    }
+  }
+
+  private static Class<?> getModel(Class<?> type) {
+    Mapper mapper = type.getAnnotation(Mapper.class);
+    if (mapper != null) {
+      try {
+        return Class.forName(mapper.value());
+      } catch (ClassNotFoundException e) {
+        return null;
+      }
+    }
+    return null;
+  }
+}
@@ -0,0 +1,69 @@
+/*
+ * Craft - Crafting game for Android, PC and Browser.
+ * Copyright (C) 2014 Miguel Gonzalez
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+
+package de.bitbrain.craft.db;
+
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * Executes selects as cached prepared statements
+ *
+ * @author Miguel Gonzalez <miguel-gonzalez@gmx.de>
+ * @since 1.0
+ * @version 1.0
+ */
+public interface PreparedQueries {
+
+  /**
+   * Executes the given select with the given arguments
+   * 
+   * @param select
+   *          select to execute
+   * @param args
+   *          arguments of the mapper method
+   * @return found models or null if the select can not be executed as prepared statement
+   * @throws SQLException
+   */
+  <T> List<T> select(PreparedSelect<T> select, Object[] args) throws SQLException;
+
+  /**
+   * Provides the table of the given model, e.g. to write statements for {@link UnitOfWork#executeBatch(String...)}
+   * 
+   * @param model
+   *          model of the table
+   * @return quoted table name or null if the table has not been created yet
+   * @throws SQLException
+   */
+  String getTable(Class<?> model) throws SQLException;
+
+  /**
+   * Provides the number of statements which have been taken from the cache
+   * 
+   * @return cache hits
+   */
+  int getCacheHits();
+
+  /**
+   * Provides the number of statements which had to be compiled
+   * 
+   * @return cache misses
+   */
+  int getCacheMisses();
+}
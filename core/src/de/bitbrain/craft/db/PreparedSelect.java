@@ -0,0 +1,216 @@
+/*
+ * Craft - Crafting game for Android, PC and Browser.
+ * Copyright (C) 2014 Miguel Gonzalez
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+
+package de.bitbrain.craft.db;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Select query which is executed as prepared statement. Parameters of the condition are bound instead of being written
+ * into the SQL string. Every column of the result has to map to exactly one field of the model and every field to a
+ * column, otherwise mapping fails instead of returning incomplete models.
+ *
+ * @author Miguel Gonzalez <miguel-gonzalez@gmx.de>
+ * @since 1.0
+ * @version 1.0
+ */
+public class PreparedSelect<T> {
+
+  private static final Pattern PARAMETER = Pattern.compile("\\$(\\d+)");
+
+  private final String key;
+
+  private final Class<T> model;
+
+  private final String condition;
+
+  // Argument index for each placeholder of the condition
+  private final int[] parameters;
+
+  // Fields of the model by normalized column name
+  private final Map<String, Field> fields;
+
+  private PreparedSelect(String key, Class<T> model, String condition, int[] parameters, Map<String, Field> fields) {
+    this.key = key;
+    this.model = model;
+    this.condition = condition;
+    this.parameters = parameters;
+    this.fields = fields;
+  }
+
+  /**
+   * Creates a new select for the given model
+   * 
+   * @param key
+   *          key of the statement
+   * @param model
+   *          model to select
+   * @param condition
+   *          mapper condition with $n placeholders. Can be empty.
+   * @return new select or null if the model can not be mapped, e.g. because two fields have the same normalized name
+   */
+  public static <T> PreparedSelect<T> create(String key, Class<T> model, String condition) {
+    Map<String, Field> fields = new HashMap<String, Field>();
+    for (Field field : model.getDeclaredFields()) {
+      if (Modifier.isStatic(field.getModifiers()) || Modifier.isTransient(field.getModifiers())) {
+        continue;
+      }
+      if (!isSupported(field.getType())) {
+        return null;
+      }
+      field.setAccessible(true);
+      if (fields.put(normalize(field.getName()), field) != null) {
+        return null;
+      }
+    }
+    List<Integer> parameters = new ArrayList<Integer>();
+    Matcher matcher = PARAMETER.matcher(condition);
+    while (matcher.find()) {
+      parameters.add(Integer.valueOf(matcher.group(1)) - 1);
+    }
+    int[] indices = new int[parameters.size()];
+    for (int i = 0; i < indices.length; ++i) {
+      indices[i] = parameters.get(i);
+    }
+    return new PreparedSelect<T>(key, model, matcher.replaceAll("?"), indices, fields);
+  }
+
+  /**
+   * Normalizes a table, column or field name
+   * 
+   * @param name
+   *          name to normalize
+   * @return lower case name without underscores
+   */
+  public static String normalize(String name) {
+    return name.replace("_", "").toLowerCase();
+  }
+
+  public String getKey() {
+    return key;
+  }
+
+  public Class<T> getModel() {
+    return model;
+  }
+
+  public String toSql(String table) {
+    if (condition.isEmpty()) {
+      return "SELECT * FROM " + table;
+    } else {
+      return "SELECT * FROM " + table + " WHERE " + condition;
+    }
+  }
+
+  public void bind(PreparedStatement statement, Object[] args) throws SQLException {
+    for (int i = 0; i < parameters.length; ++i) {
+      Object arg = args[parameters[i]];
+      if (arg instanceof Enum) {
+        statement.setString(i + 1, ((Enum<?>) arg).name());
+      } else {
+        statement.setObject(i + 1, arg);
+      }
+    }
+  }
+
+  public List<T> map(ResultSet result) throws SQLException {
+    List<T> models = new ArrayList<T>();
+    ResultSetMetaData meta = result.getMetaData();
+    Field[] columns = new Field[meta.getColumnCount()];
+    Map<String, Field> unmapped = new HashMap<String, Field>(fields);
+    for (int i = 0; i < columns.length; ++i) {
+      String column = meta.getColumnLabel(i + 1);
+      columns[i] = unmapped.remove(normalize(column));
+      if (columns[i] == null) {
+        throw new SQLException("Column '" + column + "' can not be mapped to " + model.getName());
+      }
+    }
+    if (!unmapped.isEmpty()) {
+      throw new SQLException("Fields " + unmapped.keySet() + " of " + model.getName() + " have no column");
+    }
+    while (result.next()) {
+      T object = newInstance();
+      for (int i = 0; i < columns.length; ++i) {
+        set(object, columns[i], result.getObject(i + 1));
+      }
+      models.add(object);
+    }
+    return models;
+  }
+
+  private T newInstance() throws SQLException {
+    try {
+      return model.newInstance();
+    } catch (InstantiationException e) {
+      throw new SQLException(e);
+    } catch (IllegalAccessException e) {
+      throw new SQLException(e);
+    }
+  }
+
+  private void set(T object, Field field, Object value) throws SQLException {
+    if (value == null) {
+      return;
+    }
+    try {
+      field.set(object, convert(value, field.getType()));
+    } catch (IllegalAccessException e) {
+      throw new SQLException(e);
+    } catch (IllegalArgumentException e) {
+      throw new SQLException("Value '" + value + "' can not be mapped to field " + field.getName(), e);
+    }
+  }
+
+  @SuppressWarnings({ "unchecked", "rawtypes" })
+  private static Object convert(Object value, Class<?> type) {
+    if (type.isEnum()) {
+      // Enums are stored by name, the same way they are bound as parameters
+      return Enum.valueOf((Class<? extends Enum>) type, value.toString());
+    } else if (type == String.class) {
+      return value.toString();
+    } else if (type == int.class || type == Integer.class) {
+      return value instanceof Number ? ((Number) value).intValue() : Integer.valueOf(value.toString());
+    } else if (type == long.class || type == Long.class) {
+      return value instanceof Number ? ((Number) value).longValue() : Long.valueOf(value.toString());
+    } else if (type == float.class || type == Float.class) {
+      return value instanceof Number ? ((Number) value).floatValue() : Float.valueOf(value.toString());
+    } else if (type == double.class || type == Double.class) {
+      return value instanceof Number ? ((Number) value).doubleValue() : Double.valueOf(value.toString());
+    } else {
+      return value instanceof Number ? ((Number) value).intValue() != 0 : Boolean.valueOf(value.toString());
+    }
+  }
+
+  private static boolean isSupported(Class<?> type) {
+    return type.isEnum() || type == String.class || type == int.class || type == Integer.class || type == long.class
+        || type == Long.class || type == float.class || type == Float.class || type == double.class
+        || type == Double.class || type == boolean.class || type == Boolean.class;
+  }
+}
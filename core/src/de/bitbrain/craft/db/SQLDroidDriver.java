@@ -19,15 +19,6 @@
 
 package de.bitbrain.craft.db;
 
-import java.sql.DriverManager;
-import java.sql.SQLException;
-
-import de.bitbrain.jpersis.JPersisException;
-import de.bitbrain.jpersis.drivers.Query;
-import de.bitbrain.jpersis.drivers.jdbc.JDBCDriver;
-import de.bitbrain.jpersis.drivers.sqllite.SQLiteQuery;
-import de.bitbrain.jpersis.util.Naming;
-
 /**
  * Driver implementation for SQLDroid
  *
@@ -35,35 +26,24 @@ import de.bitbrain.jpersis.util.Naming;
  * @since 1.0
  * @version 1.0
  */
-public class SQLDroidDriver extends JDBCDriver {
-
-  private String file;
+public class SQLDroidDriver extends AbstractSQLiteDriver {
 
   public SQLDroidDriver(String file) {
-    super("", "", "", "", "");
-    this.file = file;
+    super(file);
   }
 
   @Override
-  protected String getURL(String host, String port, String database) {
-    return null;
+  protected String getDriverClass() {
+    return "org.sqldroid.SQLDroidDriver";
   }
 
   @Override
-  protected Query createQuery(Class<?> model, Naming naming) {
-    return new SQLiteQuery(model, naming, statement);
+  protected String getConnectionURL(String file) {
+    return "jdbc:sqldroid:" + file;
   }
 
   @Override
-  public void connect() {
-    try {
-      Class.forName("org.sqldroid.SQLDroidDriver");
-      connection = DriverManager.getConnection("jdbc:sqldroid:" + file);
-      statement = connection.createStatement();
-    } catch (ClassNotFoundException e) {
-      throw new JPersisException(e);
-    } catch (SQLException e) {
-      throw new JPersisException(e);
-    }
+  protected ConnectionProfile getDefaultProfile() {
+    return ConnectionProfile.android();
   }
 }
\ No newline at end of file
@@ -38,6 +38,9 @@ import de.bitbrain.jpersis.annotations.Update;
 @Mapper("de.bitbrain.craft.models.SoundConfig")
 public interface SoundConfigMapper {
 
+  @Select
+  Collection<SoundConfig> findAll();
+
   @Select(condition = "id = $1")
   SoundConfig findById(int id);
 
@@ -0,0 +1,95 @@
+/*
+ * Craft - Crafting game for Android, PC and Browser.
+ * Copyright (C) 2014 Miguel Gonzalez
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+
+package de.bitbrain.craft.db;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Cache of prepared statements for a single connection. Statements are identified by a key which usually consists of
+ * the mapper method and its condition.
+ *
+ * @author Miguel Gonzalez <miguel-gonzalez@gmx.de>
+ * @since 1.0
+ * @version 1.0
+ */
+public class StatementCache {
+
+  private final Map<String, PreparedStatement> statements;
+
+  private int hits, misses;
+
+  public StatementCache() {
+    statements = new HashMap<String, PreparedStatement>();
+  }
+
+  /**
+   * Provides a prepared statement. The statement is only compiled if it is not cached yet.
+   * 
+   * @param connection
+   *          current connection
+   * @param key
+   *          key of the statement
+   * @param sql
+   *          SQL of the statement
+   * @return prepared statement
+   * @throws SQLException
+   */
+  public PreparedStatement get(Connection connection, String key, String sql) throws SQLException {
+    PreparedStatement statement = statements.get(key);
+    if (statement == null) {
+      statement = connection.prepareStatement(sql);
+      statements.put(key, statement);
+      misses++;
+    } else {
+      hits++;
+    }
+    return statement;
+  }
+
+  public int getHits() {
+    return hits;
+  }
+
+  public int getMisses() {
+    return misses;
+  }
+
+  public int size() {
+    return statements.size();
+  }
+
+  /**
+   * Closes all cached statements
+   */
+  public void clear() {
+    for (PreparedStatement statement : statements.values()) {
+      try {
+        statement.close();
+      } catch (SQLException e) {
+        // Statement is discarded anyway
+      }
+    }
+    statements.clear();
+  }
+}
@@ -0,0 +1,82 @@
+/*
+ * Craft - Crafting game for Android, PC and Browser.
+ * Copyright (C) 2014 Miguel Gonzalez
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+
+package de.bitbrain.craft.db;
+
+/**
+ * Groups multiple database operations into a single transaction. Transactions can be nested, only the outermost
+ * transaction is written to the datastore. A transaction belongs to the thread which began it, other threads wait until
+ * it has ended.
+ *
+ * @author Miguel Gonzalez <miguel-gonzalez@gmx.de>
+ * @since 1.0
+ * @version 1.0
+ */
+public interface UnitOfWork {
+
+  /**
+   * Begins a new transaction. Blocks while another thread has a transaction open.
+   */
+  void begin();
+
+  /**
+   * Commits the current transaction. Must be called by the thread which began it.
+   * 
+   * @throws de.bitbrain.jpersis.JPersisException
+   *           if this ends the outermost transaction and a nested transaction has been rolled back. Nothing has been
+   *           written in that case.
+   */
+  void commit();
+
+  /**
+   * Rolls back the current transaction. An outer transaction will be rolled back as well.
+   */
+  void rollback();
+
+  /**
+   * Registers a listener which is notified once the outermost transaction of the calling thread has ended. Without an
+   * active transaction it is notified immediately, since every statement has already been written on its own.
+   * 
+   * @param listener
+   *          listener to notify
+   */
+  void addListener(Listener listener);
+
+  /**
+   * Executes all given statements as a single batch within one transaction. Joins the current transaction of the
+   * calling thread, if there is one.
+   * 
+   * @param statements
+   *          SQL statements to execute
+   * @return update counts of each statement
+   */
+  int[] executeBatch(String... statements);
+
+  /**
+   * Is notified about the end of a transaction, e.g. to update caches only with written data
+   */
+  interface Listener {
+
+    /**
+     * @param committed
+     *          true if the changes have been written, false if they have been rolled back
+     */
+    void onEnd(boolean committed);
+  }
+}
@@ -22,14 +22,21 @@ package de.bitbrain.craft.events;
 import java.util.HashMap;
 import java.util.Map;
 
+import com.badlogic.gdx.utils.Pool;
+import com.badlogic.gdx.utils.Pool.Poolable;
+
 /**
- * General event message which can be send
+ * General event message which can be send. The well-known params sender, source and amount are stored in fixed slots
+ * without boxing, other params in a map which is created on first use.
+ * <p>
+ * Events which are obtained from a pool are freed by the event bus after dispatch. Handlers must not keep a reference
+ * to such events.
  *
  * @author Miguel Gonzalez <miguel-gonzalez@gmx.de>
  * @since 1.0
  * @version 1.0
  */
-public class Event<Model> {
+public class Event<Model> implements Poolable {
 
   public static final String SENDER = "sender";
 
@@ -37,28 +44,92 @@ public class Event<Model> {
 
   public static final String SOURCE_Y = "source_y";
 
+  public static final String AMOUNT = "amount";
+
+  private static final int SENDER_SLOT = 1;
+
+  private static final int SOURCE_X_SLOT = 2;
+
+  private static final int SOURCE_Y_SLOT = 4;
+
+  private static final int AMOUNT_SLOT = 8;
+
   private EventType type;
 
   private Model model;
 
+  // Bit mask of the slots which are set
+  private int slots;
+
+  private Object sender;
+
+  private float sourceX, sourceY;
+
+  private int amount;
+
   private Map<String, Object> params;
 
+  // Pool which contains this event after dispatch, is null for events which are not pooled
+  private Pool<Event<?>> pool;
+
   public Event(EventType type, Model model) {
     this.type = type;
     this.model = model;
-    this.params = new HashMap<String, Object>();
+  }
+
+  protected Event() {
   }
 
   public Object getParam(String id) {
-    return params.get(id);
+    int slot = slotOf(id);
+    if (slot != 0) {
+      if ((slots & slot) == 0) {
+        return null;
+      }
+      switch (slot) {
+        case SENDER_SLOT:
+          return sender;
+        case SOURCE_X_SLOT:
+          return sourceX;
+        case SOURCE_Y_SLOT:
+          return sourceY;
+        default:
+          return amount;
+      }
+    }
+    return params != null ? params.get(id) : null;
   }
 
   public boolean hasParam(String id) {
-    return params.containsKey(id);
+    int slot = slotOf(id);
+    if (slot != 0) {
+      return (slots & slot) != 0;
+    }
+    return params != null && params.containsKey(id);
   }
 
   public void setParam(String id, Object object) {
-    params.put(id, object);
+    switch (slotOf(id)) {
+      case SENDER_SLOT:
+        setSender(object);
+        break;
+      case SOURCE_X_SLOT:
+        sourceX = (Float) object;
+        slots |= SOURCE_X_SLOT;
+        break;
+      case SOURCE_Y_SLOT:
+        sourceY = (Float) object;
+        slots |= SOURCE_Y_SLOT;
+        break;
+      case AMOUNT_SLOT:
+        setAmount((Integer) object);
+        break;
+      default:
+        if (params == null) {
+          params = new HashMap<String, Object>();
+        }
+        params.put(id, object);
+    }
   }
 
   public EventType getType() {
@@ -69,6 +140,97 @@ public class Event<Model> {
     return model;
   }
 
+  public Object getSender() {
+    return sender;
+  }
+
+  public void setSender(Object sender) {
+    this.sender = sender;
+    slots |= SENDER_SLOT;
+  }
+
+  public boolean hasSource() {
+    return (slots & SOURCE_X_SLOT) != 0 && (slots & SOURCE_Y_SLOT) != 0;
+  }
+
+  public float getSourceX() {
+    return sourceX;
+  }
+
+  public float getSourceY() {
+    return sourceY;
+  }
+
+  public void setSource(float x, float y) {
+    sourceX = x;
+    sourceY = y;
+    slots |= SOURCE_X_SLOT | SOURCE_Y_SLOT;
+  }
+
+  public boolean hasAmount() {
+    return (slots & AMOUNT_SLOT) != 0;
+  }
+
+  public int getAmount() {
+    return amount;
+  }
+
+  public void setAmount(int amount) {
+    this.amount = amount;
+    slots |= AMOUNT_SLOT;
+  }
+
+  /**
+   * Returns this event to its pool. Has no effect if the event is not pooled or already freed.
+   */
+  public void free() {
+    if (pool != null) {
+      Pool<Event<?>> owner = pool;
+      pool = null;
+      owner.free(this);
+    }
+  }
+
+  /*
+   * (non-Javadoc)
+   * 
+   * @see com.badlogic.gdx.utils.Pool.Poolable#reset()
+   */
+  @Override
+  public void reset() {
+    type = null;
+    model = null;
+    slots = 0;
+    sender = null;
+    sourceX = sourceY = 0f;
+    amount = 0;
+    if (params != null) {
+      params.clear();
+    }
+  }
+
+  /**
+   * Initializes an event which has been obtained from the given pool
+   */
+  protected void init(Pool<Event<?>> pool, EventType type, Model model) {
+    this.pool = pool;
+    this.type = type;
+    this.model = model;
+  }
+
+  private static int slotOf(String id) {
+    if (SENDER.equals(id)) {
+      return SENDER_SLOT;
+    } else if (SOURCE_X.equals(id)) {
+      return SOURCE_X_SLOT;
+    } else if (SOURCE_Y.equals(id)) {
+      return SOURCE_Y_SLOT;
+    } else if (AMOUNT.equals(id)) {
+      return AMOUNT_SLOT;
+    }
+    return 0;
+  }
+
   public static enum EventType {
     UPDATE,
     ADD,
@@ -86,4 +248,4 @@ public class Event<Model> {
     KEYUP,
     PLAY
   }
-}
\ No newline at end of file
+}
@@ -62,4 +62,22 @@ public interface EventBus {
    *          element
    */
   public <T> void fireEvent(EventType type, T item);
+
+  /**
+   * Posts an event from any thread. The event is fired on the render thread with the next call of
+   * {@link #dispatchQueuedEvents(int)}.
+   * 
+   * @param event
+   */
+  public <T> void postEvent(Event<T> event);
+
+  /**
+   * Fires all queued events on the calling thread, which becomes the render thread of this bus. Afterwards events which
+   * are fired by other threads are queued as well.
+   * 
+   * @param budget
+   *          maximum number of events to fire, remaining events are fired with the next call
+   * @return number of fired events
+   */
+  public int dispatchQueuedEvents(int budget);
 }
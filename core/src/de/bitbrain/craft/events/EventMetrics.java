@@ -0,0 +1,229 @@
+/*
+ * Craft - Crafting game for Android, PC and Browser.
+ * Copyright (C) 2014 Miguel Gonzalez
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+
+package de.bitbrain.craft.events;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.files.FileHandle;
+import com.google.inject.Singleton;
+
+import de.bitbrain.craft.Settings;
+
+/**
+ * Collects the dispatch time of events. For each event class and for each handler of it the number of dispatches, the
+ * total and the maximum time are recorded. Handlers which take longer than the threshold are logged. Recording is
+ * disabled by default, use 'stats events on' to enable it.
+ *
+ * @author Miguel Gonzalez <miguel-gonzalez@gmx.de>
+ * @since 1.0
+ * @version 1.0
+ */
+@Singleton
+public class EventMetrics {
+
+  private final ConcurrentMap<String, Recorder> recorders = new ConcurrentHashMap<String, Recorder>();
+
+  private volatile long slowHandlerNanos = Settings.SLOW_HANDLER_MILLIS * 1000000L;
+
+  private volatile boolean enabled;
+
+  /**
+   * Enables or disables recording. Measuring costs two clock reads per handler.
+   * 
+   * @param enabled
+   *          true to record dispatches
+   */
+  public void setEnabled(boolean enabled) {
+    this.enabled = enabled;
+  }
+
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  /**
+   * Sets the time after which a handler is reported as slow
+   * 
+   * @param millis
+   *          threshold in milliseconds
+   */
+  public void setSlowHandlerThreshold(long millis) {
+    slowHandlerNanos = millis * 1000000L;
+  }
+
+  public long getSlowHandlerThreshold() {
+    return slowHandlerNanos / 1000000L;
+  }
+
+  /**
+   * Provides the recorder of an event class or of one of its handlers. Is resolved once per dispatch table, not per
+   * event.
+   * 
+   * @param event
+   *          event class
+   * @param handler
+   *          name of the handler, e.g. ItemList.onEvent, or null for the event itself
+   * @return recorder
+   */
+  Recorder getRecorder(Class<?> event, String handler) {
+    String key = handler != null ? event.getName() + "#" + handler : event.getName();
+    Recorder recorder = recorders.get(key);
+    if (recorder == null) {
+      Recorder created = new Recorder(event.getSimpleName(), handler);
+      recorder = recorders.putIfAbsent(key, created);
+      if (recorder == null) {
+        recorder = created;
+      }
+    }
+    return recorder;
+  }
+
+  /**
+   * Records a single dispatch
+   * 
+   * @param recorder
+   *          recorder of an event or handler
+   * @param nanos
+   *          time of the dispatch
+   */
+  void record(Recorder recorder, long nanos) {
+    boolean newMax = recorder.record(nanos);
+    // Only report new maxima, otherwise a slow mouse handler would flood the log
+    if (newMax && recorder.handler != null && nanos > slowHandlerNanos && Gdx.app != null) {
+      Gdx.app.log("WARN", String.format("Slow handler %s for %s took %.2f ms.", recorder.handler, recorder.event,
+          nanos / 1000000f));
+    }
+  }
+
+  /**
+   * Provides the current statistics of all dispatched events and their handlers
+   * 
+   * @return statistics ordered by total time, the slowest first
+   */
+  public List<EventStats> getStats() {
+    List<EventStats> stats = new ArrayList<EventStats>();
+    for (Recorder recorder : recorders.values()) {
+      EventStats snapshot = recorder.snapshot();
+      if (snapshot.getCount() > 0) {
+        stats.add(snapshot);
+      }
+    }
+    Collections.sort(stats, new Comparator<EventStats>() {
+      @Override
+      public int compare(EventStats a, EventStats b) {
+        if (a.getTotalNanos() == b.getTotalNanos()) {
+          return a.getName().compareTo(b.getName());
+        }
+        return a.getTotalNanos() > b.getTotalNanos() ? -1 : 1;
+      }
+    });
+    return stats;
+  }
+
+  /**
+   * Resets all statistics
+   */
+  public void reset() {
+    for (Recorder recorder : recorders.values()) {
+      recorder.reset();
+    }
+  }
+
+  /**
+   * Writes the current statistics to the log
+   */
+  public void dump() {
+    List<EventStats> stats = getStats();
+    if (stats.isEmpty()) {
+      Gdx.app.log("INFO", "No events recorded.");
+      return;
+    }
+    Gdx.app.log("INFO", "Events and handlers (dispatches, total ms, avg ms, max ms):");
+    for (EventStats s : stats) {
+      Gdx.app.log("INFO", String.format("  %-50s %7d %9.2f %7.3f %7.3f", s.getName(), s.getCount(),
+          s.getTotalMillis(), s.getAverageMillis(), s.getMaxMillis()));
+    }
+  }
+
+  /**
+   * Writes a snapshot of the current statistics as CSV
+   * 
+   * @param file
+   *          target file, is overwritten
+   */
+  public void export(FileHandle file) {
+    StringBuilder csv = new StringBuilder("event,handler,count,total_ns,max_ns\n");
+    for (EventStats s : getStats()) {
+      csv.append(s.getEvent()).append(',').append(s.getHandler() != null ? s.getHandler() : "").append(',')
+          .append(s.getCount()).append(',').append(s.getTotalNanos()).append(',').append(s.getMaxNanos())
+          .append('\n');
+    }
+    file.writeString(csv.toString(), false);
+    Gdx.app.log("INFO", "Exported event statistics to " + file.file().getAbsolutePath());
+  }
+
+  // Events are only dispatched on the render thread, so a recorder has a single writer and needs no atomic updates
+  static class Recorder {
+
+    private final String event;
+
+    private final String handler;
+
+    private volatile long count;
+
+    private volatile long total;
+
+    private volatile long max;
+
+    Recorder(String event, String handler) {
+      this.event = event;
+      this.handler = handler;
+    }
+
+    /**
+     * @return true if the time is a new maximum
+     */
+    boolean record(long nanos) {
+      count++;
+      total += nanos;
+      if (nanos > max) {
+        max = nanos;
+        return true;
+      }
+      return false;
+    }
+
+    EventStats snapshot() {
+      return new EventStats(event, handler, count, total, max);
+    }
+
+    void reset() {
+      count = 0;
+      total = 0;
+      max = 0;
+    }
+  }
+}
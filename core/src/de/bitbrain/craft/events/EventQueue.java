@@ -0,0 +1,93 @@
+/*
+ * Craft - Crafting game for Android, PC and Browser.
+ * Copyright (C) 2014 Miguel Gonzalez
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+
+package de.bitbrain.craft.events;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Lock-free queue for events which are posted from any thread. Is drained on the render thread, which is the thread
+ * which drained the queue last. A queue which is created on the game loop thread is bound to it right away.
+ *
+ * @author Miguel Gonzalez <miguel-gonzalez@gmx.de>
+ * @since 1.0
+ * @version 1.0
+ */
+final class EventQueue {
+
+  private final Queue<Event<?>> events = new ConcurrentLinkedQueue<Event<?>>();
+
+  // Thread which runs the game loop, null if not known yet
+  private static volatile Thread gameThread;
+
+  private volatile Thread renderThread;
+
+  public EventQueue() {
+    Thread thread = Thread.currentThread();
+    if (thread == gameThread) {
+      renderThread = thread;
+    }
+  }
+
+  /**
+   * Marks the calling thread as the thread which runs the game loop
+   */
+  static void bindGameThread() {
+    gameThread = Thread.currentThread();
+  }
+
+  public void offer(Event<?> event) {
+    events.offer(event);
+  }
+
+  /**
+   * Determines if the calling thread has to queue its events. If the queue has neither been created on the game loop
+   * thread nor drained yet, every thread dispatches directly.
+   * 
+   * @return true if the queue has been drained by another thread
+   */
+  public boolean isForeignThread() {
+    Thread thread = renderThread;
+    return thread != null && thread != Thread.currentThread();
+  }
+
+  /**
+   * Fires queued events on the calling thread
+   * 
+   * @param bus
+   *          bus which fires the events
+   * @param budget
+   *          maximum number of events to fire
+   * @return number of fired events
+   */
+  public int drain(EventBus bus, int budget) {
+    Thread thread = Thread.currentThread();
+    if (renderThread != thread) {
+      renderThread = thread;
+    }
+    int count = 0;
+    Event<?> event;
+    while (count < budget && (event = events.poll()) != null) {
+      bus.fireEvent(event);
+      count++;
+    }
+    return count;
+  }
+}
@@ -0,0 +1,93 @@
+/*
+ * Craft - Crafting game for Android, PC and Browser.
+ * Copyright (C) 2014 Miguel Gonzalez
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+
+package de.bitbrain.craft.events;
+
+/**
+ * Snapshot of the dispatch statistics of an event class or of one of its handlers
+ *
+ * @author Miguel Gonzalez <miguel-gonzalez@gmx.de>
+ * @since 1.0
+ * @version 1.0
+ */
+public class EventStats {
+
+  private final String event;
+
+  private final String handler;
+
+  private final long count;
+
+  private final long totalNanos;
+
+  private final long maxNanos;
+
+  EventStats(String event, String handler, long count, long totalNanos, long maxNanos) {
+    this.event = event;
+    this.handler = handler;
+    this.count = count;
+    this.totalNanos = totalNanos;
+    this.maxNanos = maxNanos;
+  }
+
+  /**
+   * @return simple name of the event class, e.g. ItemEvent
+   */
+  public String getEvent() {
+    return event;
+  }
+
+  /**
+   * @return name of the handler, e.g. ItemList.onEvent, or null if these are the statistics of the event itself
+   */
+  public String getHandler() {
+    return handler;
+  }
+
+  /**
+   * @return event and handler, e.g. ItemEvent -> ItemList.onEvent
+   */
+  public String getName() {
+    return handler != null ? event + " -> " + handler : event;
+  }
+
+  public long getCount() {
+    return count;
+  }
+
+  public long getTotalNanos() {
+    return totalNanos;
+  }
+
+  public long getMaxNanos() {
+    return maxNanos;
+  }
+
+  public float getTotalMillis() {
+    return totalNanos / 1000000f;
+  }
+
+  public float getAverageMillis() {
+    return count > 0 ? getTotalMillis() / count : 0f;
+  }
+
+  public float getMaxMillis() {
+    return maxNanos / 1000000f;
+  }
+}
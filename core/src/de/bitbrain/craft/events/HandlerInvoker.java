@@ -0,0 +1,54 @@
+/*
+ * Craft - Crafting game for Android, PC and Browser.
+ * Copyright (C) 2014 Miguel Gonzalez
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+
+package de.bitbrain.craft.events;
+
+/**
+ * Calls the event handlers of a subscriber class directly. Implementations are generated at compile time as
+ * {@code <Class>_HandlerInvoker} by de.bitbrain.craft.processor.HandlerProcessor.
+ *
+ * @author Miguel Gonzalez <miguel-gonzalez@gmx.de>
+ * @since 1.0
+ * @version 1.0
+ */
+public interface HandlerInvoker {
+
+  /**
+   * Provides the index of a handler method
+   * 
+   * @param method
+   *          name of the handler method
+   * @param eventType
+   *          parameter type of the handler method
+   * @return index of the handler, -1 if the handler is not known
+   */
+  int indexOf(String method, Class<?> eventType);
+
+  /**
+   * Calls a handler
+   * 
+   * @param index
+   *          index of the handler, see {@link #indexOf(String, Class)}
+   * @param listener
+   *          subscriber which declares the handler
+   * @param event
+   *          event to pass
+   */
+  void invoke(int index, Object listener, Object event);
+}
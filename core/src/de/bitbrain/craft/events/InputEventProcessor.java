@@ -29,7 +29,9 @@ import de.bitbrain.craft.events.Event.EventType;
 import de.bitbrain.craft.inject.SharedInjector;
 
 /**
- * Handler for controls
+ * Handler for controls. Mouse move and drag events are coalesced: only the latest position per pointer is fired once
+ * per frame, when the stage acts. Pending positions are fired before any touch down or up, so that their order is
+ * kept. They are dropped when the processor loses the input, see {@link #clearPending()}.
  *
  * @author Miguel Gonzalez <miguel-gonzalez@gmx.de>
  * @since 1.0
@@ -37,6 +39,20 @@ import de.bitbrain.craft.inject.SharedInjector;
  */
 public class InputEventProcessor extends Stage {
 
+  // Number of pointers which drag events are coalesced for
+  private static final int MAX_POINTERS = 20;
+
+  // Number of move and drag events which have been replaced by a newer one
+  private static long coalesced;
+
+  private boolean movePending;
+
+  private int moveX, moveY;
+
+  private final boolean[] dragPending = new boolean[MAX_POINTERS];
+
+  private final int[] dragX = new int[MAX_POINTERS], dragY = new int[MAX_POINTERS];
+
   @Inject
   private EventBus eventBus;
 
@@ -48,8 +64,21 @@ public class InputEventProcessor extends Stage {
     SharedInjector.get().injectMembers(this);
 
   }
-  
-  
+
+  /**
+   * Provides the number of move and drag events which have been dropped in favour of a newer position
+   * 
+   * @return number of coalesced events of all processors
+   */
+  public static long getCoalescedCount() {
+    return coalesced;
+  }
+
+  @Override
+  public void act(float delta) {
+    firePending();
+    super.act(delta);
+  }
 
   /*
    * (non-Javadoc)
@@ -59,7 +88,12 @@ public class InputEventProcessor extends Stage {
   @Override
   public boolean mouseMoved(int screenX, int screenY) {
     super.mouseMoved(screenX, screenY);
-    eventBus.fireEvent(new MouseEvent<InputEventProcessor>(EventType.MOUSEMOVE, this, screenX, screenY));
+    if (movePending) {
+      coalesced++;
+    }
+    movePending = true;
+    moveX = screenX;
+    moveY = screenY;
     return gestureManager.mouseMoved(screenX, screenY);
   }
 
@@ -71,7 +105,16 @@ public class InputEventProcessor extends Stage {
   @Override
   public boolean touchDragged(int screenX, int screenY, int pointer) {
     super.touchDragged(screenX, screenY, pointer);
-    eventBus.fireEvent(new MouseEvent<InputEventProcessor>(EventType.MOUSEDRAG, this, screenX, screenY));
+    if (pointer >= 0 && pointer < MAX_POINTERS) {
+      if (dragPending[pointer]) {
+        coalesced++;
+      }
+      dragPending[pointer] = true;
+      dragX[pointer] = screenX;
+      dragY[pointer] = screenY;
+    } else {
+      eventBus.fireEvent(MouseEvent.obtain(EventType.MOUSEDRAG, this, screenX, screenY));
+    }
     return gestureManager.touchDragged(screenX, screenY, pointer);
   }
 
@@ -82,8 +125,9 @@ public class InputEventProcessor extends Stage {
    */
   @Override
   public boolean touchDown(int screenX, int screenY, int pointer, int button) {
+    firePending();
     super.touchDown(screenX, screenY, pointer, button);
-    eventBus.fireEvent(new MouseEvent<InputEventProcessor>(EventType.MOUSEDOWN, this, screenX, screenY));
+    eventBus.fireEvent(MouseEvent.obtain(EventType.MOUSEDOWN, this, screenX, screenY));
     return gestureManager.touchDown(screenX, screenY, pointer, button);
   }
 
@@ -94,8 +138,9 @@ public class InputEventProcessor extends Stage {
    */
   @Override
   public boolean touchUp(int screenX, int screenY, int pointer, int button) {
+    firePending();
     super.touchUp(screenX, screenY, pointer, button);
-    eventBus.fireEvent(new MouseEvent<InputEventProcessor>(EventType.MOUSEUP, this, screenX, screenY));
+    eventBus.fireEvent(MouseEvent.obtain(EventType.MOUSEUP, this, screenX, screenY));
     return gestureManager.touchUp(screenX, screenY, pointer, button);
   }
 
@@ -107,7 +152,7 @@ public class InputEventProcessor extends Stage {
   @Override
   public boolean keyDown(int keyCode) {
     super.keyDown(keyCode);
-    eventBus.fireEvent(new KeyEvent(EventType.KEYDOWN, Gdx.input, keyCode));
+    eventBus.fireEvent(KeyEvent.obtain(EventType.KEYDOWN, Gdx.input, keyCode));
     return gestureManager.keyDown(keyCode);
   }
 
@@ -119,7 +164,7 @@ public class InputEventProcessor extends Stage {
   @Override
   public boolean keyUp(int keyCode) {
     super.keyUp(keyCode);
-    eventBus.fireEvent(new KeyEvent(EventType.KEYUP, Gdx.input, keyCode));
+    eventBus.fireEvent(KeyEvent.obtain(EventType.KEYUP, Gdx.input, keyCode));
     return gestureManager.keyUp(keyCode);
   }
 
@@ -135,4 +180,28 @@ public class InputEventProcessor extends Stage {
     return gestureManager.scrolled(amount);
   }
 
+  /**
+   * Drops all pending move and drag positions without firing them. Has to be called when this processor is no longer
+   * the input processor, otherwise the positions are fired on the next act.
+   */
+  public void clearPending() {
+    movePending = false;
+    for (int pointer = 0; pointer < MAX_POINTERS; ++pointer) {
+      dragPending[pointer] = false;
+    }
+  }
+
+  private void firePending() {
+    if (movePending) {
+      movePending = false;
+      eventBus.fireEvent(MouseEvent.obtain(EventType.MOUSEMOVE, this, moveX, moveY));
+    }
+    for (int pointer = 0; pointer < MAX_POINTERS; ++pointer) {
+      if (dragPending[pointer]) {
+        dragPending[pointer] = false;
+        eventBus.fireEvent(MouseEvent.obtain(EventType.MOUSEDRAG, this, dragX[pointer], dragY[pointer]));
+      }
+    }
+  }
+
 }
\ No newline at end of file
@@ -0,0 +1,47 @@
+/*
+ * Craft - Crafting game for Android, PC and Browser.
+ * Copyright (C) 2014 Miguel Gonzalez
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+
+package de.bitbrain.craft.events;
+
+import de.bitbrain.craft.core.ItemBag;
+
+/**
+ * Item event which contains multiple items at once. Is fired by bulk operations instead of a single {@link ItemEvent}
+ * per item, so that listeners are able to update in a single pass.
+ *
+ * @author Miguel Gonzalez <miguel-gonzalez@gmx.de>
+ * @since 1.0
+ * @version 1.0
+ */
+public class ItemBatchEvent extends Event<ItemBag> {
+
+  /**
+   * @param type
+   *          either ADD or REMOVE
+   * @param items
+   *          items with the amount which has been added or removed
+   */
+  public ItemBatchEvent(EventType type, ItemBag items) {
+    super(type, items);
+  }
+
+  public boolean isEmpty() {
+    return getModel().size() == 0;
+  }
+}
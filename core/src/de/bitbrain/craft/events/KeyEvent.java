@@ -20,6 +20,7 @@
 package de.bitbrain.craft.events;
 
 import com.badlogic.gdx.Input;
+import com.badlogic.gdx.utils.Pool;
 
 /**
  * Event for keys
@@ -30,6 +31,13 @@ import com.badlogic.gdx.Input;
  */
 public class KeyEvent extends Event<Input> {
 
+  private static final Pool<Event<?>> pool = new Pool<Event<?>>() {
+    @Override
+    protected Event<?> newObject() {
+      return new KeyEvent();
+    }
+  };
+
   private int key;
 
   /**
@@ -41,6 +49,25 @@ public class KeyEvent extends Event<Input> {
     this.key = key;
   }
 
+  private KeyEvent() {
+  }
+
+  /**
+   * Obtains a pooled key event. Must be called on the render thread, the event is freed after it has been fired.
+   */
+  public static KeyEvent obtain(EventType type, Input model, int key) {
+    KeyEvent event = (KeyEvent) pool.obtain();
+    event.init(pool, type, model);
+    event.key = key;
+    return event;
+  }
+
+  @Override
+  public void reset() {
+    super.reset();
+    key = 0;
+  }
+
   public int getKey() {
     return key;
   }
@@ -37,6 +37,8 @@ public final class MBassadorEventBus implements EventBus {
   @SuppressWarnings("deprecation")
   private MBassador<Event<?>> bus = new MBassador<Event<?>>(BusConfiguration.SyncAsync());
 
+  private final EventQueue queue = new EventQueue();
+
   public MBassadorEventBus() {
   }
 
@@ -68,6 +70,21 @@ public final class MBassadorEventBus implements EventBus {
    */
   @Override
   public <T> void fireEvent(Event<T> event) {
-    bus.publish(event);
+    if (queue.isForeignThread()) {
+      queue.offer(event);
+    } else {
+      bus.publish(event);
+      event.free();
+    }
+  }
+
+  @Override
+  public <T> void postEvent(Event<T> event) {
+    queue.offer(event);
+  }
+
+  @Override
+  public int dispatchQueuedEvents(int budget) {
+    return queue.drain(this, budget);
   }
 }
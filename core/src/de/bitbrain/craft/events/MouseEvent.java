@@ -19,6 +19,8 @@
 
 package de.bitbrain.craft.events;
 
+import com.badlogic.gdx.utils.Pool;
+
 /**
  * Event which occurs on mouse interaction
  *
@@ -28,6 +30,13 @@ package de.bitbrain.craft.events;
  */
 public class MouseEvent<Model> extends Event<Model> {
 
+  private static final Pool<Event<?>> pool = new Pool<Event<?>>() {
+    @Override
+    protected Event<?> newObject() {
+      return new MouseEvent<Object>();
+    }
+  };
+
   private float x, y;
 
   public MouseEvent(de.bitbrain.craft.events.Event.EventType type, Model model, float x, float y) {
@@ -36,6 +45,27 @@ public class MouseEvent<Model> extends Event<Model> {
     this.y = y;
   }
 
+  private MouseEvent() {
+  }
+
+  /**
+   * Obtains a pooled mouse event. Must be called on the render thread, the event is freed after it has been fired.
+   */
+  @SuppressWarnings("unchecked")
+  public static <Model> MouseEvent<Model> obtain(EventType type, Model model, float x, float y) {
+    MouseEvent<Model> event = (MouseEvent<Model>) pool.obtain();
+    event.init(pool, type, model);
+    event.x = x;
+    event.y = y;
+    return event;
+  }
+
+  @Override
+  public void reset() {
+    super.reset();
+    x = y = 0f;
+  }
+
   public float getMouseX() {
     return x;
   }
@@ -4,15 +4,24 @@ import com.badlogic.gdx.audio.Sound;
 
 public class SoundPlayEvent extends Event<Sound> {
 
-  public static final String PITCH = "pitch";
-  public static final String VOLUME = "volume";
-  public static final String PAN = "pan";
+  private final float volume, pitch, pan;
 
   public SoundPlayEvent(Sound model, float volume, float pitch, float pan) {
     super(EventType.PLAY, model);
-    setParam(VOLUME, volume);
-    setParam(PITCH, pitch);
-    setParam(PAN, pan);
+    this.volume = volume;
+    this.pitch = pitch;
+    this.pan = pan;
   }
 
+  public float getVolume() {
+    return volume;
+  }
+
+  public float getPitch() {
+    return pitch;
+  }
+
+  public float getPan() {
+    return pan;
+  }
 }
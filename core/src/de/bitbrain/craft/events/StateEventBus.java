@@ -0,0 +1,91 @@
+/*
+ * Craft - Crafting game for Android, PC and Browser.
+ * Copyright (C) 2014 Miguel Gonzalez
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+
+package de.bitbrain.craft.events;
+
+import com.google.inject.Inject;
+import com.google.inject.Provider;
+import com.google.inject.Singleton;
+
+import de.bitbrain.craft.events.Event.EventType;
+
+/**
+ * Event bus of the current state, which can be used from any thread. The state scope keeps its instances per thread, so
+ * a bus which is resolved on the database thread would be a second bus without subscribers. Instead the bus is resolved
+ * on the game thread when a state is entered and all calls are passed to it. Events of other threads are queued by that
+ * bus and fired on the render thread.
+ *
+ * @author Miguel Gonzalez <miguel-gonzalez@gmx.de>
+ * @since 1.0
+ * @version 1.0
+ */
+@Singleton
+public class StateEventBus implements EventBus {
+
+  // Used as long as no state has been entered, e.g. in tests
+  @Inject
+  private Provider<EventBus> provider;
+
+  private volatile EventBus current;
+
+  /**
+   * Sets the bus of the current state. Has to be called on the game thread whenever a state is entered.
+   * 
+   * @param bus
+   *          bus of the entered state
+   */
+  public void bind(EventBus bus) {
+    current = bus;
+  }
+
+  @Override
+  public void subscribe(Object obj) {
+    bus().subscribe(obj);
+  }
+
+  @Override
+  public void unsubscribe(Object obj) {
+    bus().unsubscribe(obj);
+  }
+
+  @Override
+  public <T> void fireEvent(Event<T> event) {
+    bus().fireEvent(event);
+  }
+
+  @Override
+  public <T> void fireEvent(EventType type, T item) {
+    bus().fireEvent(type, item);
+  }
+
+  @Override
+  public <T> void postEvent(Event<T> event) {
+    bus().postEvent(event);
+  }
+
+  @Override
+  public int dispatchQueuedEvents(int budget) {
+    return bus().dispatchQueuedEvents(budget);
+  }
+
+  private EventBus bus() {
+    EventBus bus = current;
+    return bus != null ? bus : provider.get();
+  }
+}
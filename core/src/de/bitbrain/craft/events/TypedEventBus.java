@@ -0,0 +1,387 @@
+/*
+ * Craft - Crafting game for Android, PC and Browser.
+ * Copyright (C) 2014 Miguel Gonzalez
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+
+package de.bitbrain.craft.events;
+
+import java.lang.ref.WeakReference;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import net.engio.mbassy.listener.Handler;
+
+import com.badlogic.gdx.Gdx;
+import com.google.inject.Inject;
+
+import de.bitbrain.craft.events.Event.EventType;
+import de.bitbrain.craft.events.EventMetrics.Recorder;
+import de.bitbrain.craft.inject.StateScoped;
+
+/**
+ * Event bus which dispatches synchronously on the render thread, events of other threads are queued. Handler methods
+ * are resolved once per subscriber class and compiled into a dispatch table by event class, so publishing an event
+ * neither looks up methods nor allocates. Pooled events are freed after dispatch. Supports the {@link Handler} options
+ * priority, rejectSubtypes and enabled. Subscribers are referenced weakly. If {@link EventMetrics} are given, the time
+ * of every handler is recorded.
+ * <p>
+ * Handlers are called through the {@link HandlerInvoker} which is generated for their class at compile time. Handlers
+ * without a generated invoker, e.g. private methods or handlers of anonymous classes, fall back to reflection.
+ *
+ * @author Miguel Gonzalez <miguel-gonzalez@gmx.de>
+ * @since 1.0
+ * @version 1.0
+ */
+@StateScoped
+public final class TypedEventBus implements EventBus {
+
+  private static final Subscription[] NO_SUBSCRIPTIONS = new Subscription[0];
+
+  private static final Recorder[] NO_RECORDERS = new Recorder[0];
+
+  // Suffix of generated invokers, see de.bitbrain.craft.processor.HandlerProcessor
+  private static final String INVOKER_SUFFIX = "_HandlerInvoker";
+
+  // Higher priorities are called first
+  private static final Comparator<Subscription> PRIORITY_ORDER = new Comparator<Subscription>() {
+    @Override
+    public int compare(Subscription a, Subscription b) {
+      return b.method.priority - a.method.priority;
+    }
+  };
+
+  // Handler methods by subscriber class
+  private static final Map<Class<?>, HandlerMethod[]> handlerMethods = new HashMap<Class<?>, HandlerMethod[]>();
+
+  private final List<Subscription> subscriptions = new ArrayList<Subscription>();
+
+  // Subscriptions by event class, is rebuilt on demand after subscriptions changed
+  private final Map<Class<?>, Dispatch> dispatchTable = new ConcurrentHashMap<Class<?>, Dispatch>();
+
+  private final EventMetrics metrics;
+
+  // Events of other threads than the render thread
+  private final EventQueue queue = new EventQueue();
+
+  // Argument array for reflective calls, only one is required per thread
+  private final ThreadLocal<Object[]> arguments = new ThreadLocal<Object[]>() {
+    @Override
+    protected Object[] initialValue() {
+      return new Object[1];
+    }
+  };
+
+  public TypedEventBus() {
+    this(null);
+  }
+
+  @Inject
+  public TypedEventBus(EventMetrics metrics) {
+    this.metrics = metrics;
+  }
+
+  /**
+   * Marks the calling thread as render thread. Buses which are created on it afterwards queue events of other threads
+   * from the start, not only after their first drain. Has to be called on the game loop thread.
+   */
+  public static void bindRenderThread() {
+    EventQueue.bindGameThread();
+  }
+
+  @Override
+  public void subscribe(Object obj) {
+    HandlerMethod[] methods = getHandlerMethods(obj.getClass());
+    if (methods.length == 0) {
+      return;
+    }
+    synchronized (subscriptions) {
+      for (Subscription subscription : subscriptions) {
+        if (subscription.listener.get() == obj) {
+          return;
+        }
+      }
+      WeakReference<Object> listener = new WeakReference<Object>(obj);
+      for (HandlerMethod method : methods) {
+        subscriptions.add(new Subscription(listener, method));
+      }
+      dispatchTable.clear();
+    }
+  }
+
+  @Override
+  public void unsubscribe(Object obj) {
+    synchronized (subscriptions) {
+      Iterator<Subscription> iterator = subscriptions.iterator();
+      while (iterator.hasNext()) {
+        Object listener = iterator.next().listener.get();
+        if (listener == null || listener == obj) {
+          iterator.remove();
+        }
+      }
+      dispatchTable.clear();
+    }
+  }
+
+  /*
+   * (non-Javadoc)
+   * 
+   * @see de.bitbrain.craft.events.EventBus#fireEvent(de.bitbrain.craft.events.Event.EventType, java.lang.Object)
+   */
+  @Override
+  public <T> void fireEvent(EventType type, T item) {
+    fireEvent(new Event<T>(type, item));
+  }
+
+  /*
+   * (non-Javadoc)
+   * 
+   * @see de.bitbrain.craft.events.EventBus#fireEvent(de.bitbrain.craft.events.Event)
+   */
+  @Override
+  public <T> void fireEvent(Event<T> event) {
+    if (queue.isForeignThread()) {
+      queue.offer(event);
+      return;
+    }
+    Dispatch dispatch = dispatchTable.get(event.getClass());
+    if (dispatch == null) {
+      dispatch = resolve(event.getClass());
+    }
+    Subscription[] targets = dispatch.targets;
+    if (targets.length > 0) {
+      if (dispatch.event != null && metrics.isEnabled()) {
+        dispatchMeasured(event, dispatch);
+      } else {
+        Object[] args = arguments.get();
+        for (Subscription subscription : targets) {
+          Object listener = subscription.listener.get();
+          if (listener != null) {
+            // Nested events overwrite the argument, set it for every call
+            args[0] = event;
+            subscription.method.invoke(listener, args);
+          }
+        }
+        args[0] = null;
+      }
+    }
+    event.free();
+  }
+
+  private void dispatchMeasured(Event<?> event, Dispatch dispatch) {
+    Object[] args = arguments.get();
+    Subscription[] targets = dispatch.targets;
+    long total = 0;
+    for (int i = 0; i < targets.length; ++i) {
+      Object listener = targets[i].listener.get();
+      if (listener != null) {
+        args[0] = event;
+        long start = System.nanoTime();
+        targets[i].method.invoke(listener, args);
+        long nanos = System.nanoTime() - start;
+        metrics.record(dispatch.handlers[i], nanos);
+        total += nanos;
+      }
+    }
+    args[0] = null;
+    metrics.record(dispatch.event, total);
+  }
+
+  @Override
+  public <T> void postEvent(Event<T> event) {
+    queue.offer(event);
+  }
+
+  @Override
+  public int dispatchQueuedEvents(int budget) {
+    return queue.drain(this, budget);
+  }
+
+  private Dispatch resolve(Class<?> eventClass) {
+    synchronized (subscriptions) {
+      List<Subscription> targets = new ArrayList<Subscription>();
+      Iterator<Subscription> iterator = subscriptions.iterator();
+      while (iterator.hasNext()) {
+        Subscription subscription = iterator.next();
+        if (subscription.listener.get() == null) {
+          iterator.remove();
+        } else if (subscription.method.accepts(eventClass)) {
+          targets.add(subscription);
+        }
+      }
+      Collections.sort(targets, PRIORITY_ORDER);
+      Subscription[] result = targets.isEmpty() ? NO_SUBSCRIPTIONS : targets.toArray(new Subscription[targets.size()]);
+      Dispatch dispatch = new Dispatch(result);
+      if (metrics != null && result.length > 0) {
+        dispatch.event = metrics.getRecorder(eventClass, null);
+        dispatch.handlers = new Recorder[result.length];
+        for (int i = 0; i < result.length; ++i) {
+          dispatch.handlers[i] = metrics.getRecorder(eventClass, result[i].method.name);
+        }
+      }
+      dispatchTable.put(eventClass, dispatch);
+      return dispatch;
+    }
+  }
+
+  private static HandlerMethod[] getHandlerMethods(Class<?> type) {
+    synchronized (handlerMethods) {
+      HandlerMethod[] methods = handlerMethods.get(type);
+      if (methods == null) {
+        List<HandlerMethod> list = new ArrayList<HandlerMethod>();
+        List<Method> overridden = new ArrayList<Method>();
+        for (Class<?> current = type; current != null && current != Object.class; current = current.getSuperclass()) {
+          HandlerInvoker invoker = null;
+          boolean loaded = false;
+          for (Method method : current.getDeclaredMethods()) {
+            Handler handler = method.getAnnotation(Handler.class);
+            if (handler != null && handler.enabled() && method.getParameterTypes().length == 1
+                && !isOverridden(method, overridden)) {
+              if (!loaded) {
+                invoker = loadInvoker(current);
+                loaded = true;
+              }
+              int index = invoker != null ? invoker.indexOf(method.getName(), method.getParameterTypes()[0]) : -1;
+              if (index < 0) {
+                method.setAccessible(true);
+              }
+              list.add(new HandlerMethod(method, handler, index >= 0 ? invoker : null, index));
+            }
+            overridden.add(method);
+          }
+        }
+        methods = list.toArray(new HandlerMethod[list.size()]);
+        handlerMethods.put(type, methods);
+      }
+      return methods;
+    }
+  }
+
+  private static HandlerInvoker loadInvoker(Class<?> type) {
+    // Nested classes are flattened, e.g. Outer$Inner becomes Outer_Inner_HandlerInvoker
+    String name = type.getName();
+    int separator = name.lastIndexOf('.') + 1;
+    String invokerName = name.substring(0, separator) + name.substring(separator).replace('$', '_') + INVOKER_SUFFIX;
+    try {
+      return (HandlerInvoker) Class.forName(invokerName, true, type.getClassLoader()).newInstance();
+    } catch (ClassNotFoundException e) {
+      return null;
+    } catch (InstantiationException e) {
+      Gdx.app.error("ERROR", "Unable to create handler invoker " + invokerName, e);
+      return null;
+    } catch (IllegalAccessException e) {
+      Gdx.app.error("ERROR", "Unable to create handler invoker " + invokerName, e);
+      return null;
+    }
+  }
+
+  private static boolean isOverridden(Method method, List<Method> subclassMethods) {
+    for (Method other : subclassMethods) {
+      if (other.getName().equals(method.getName())
+          && Arrays.equals(other.getParameterTypes(), method.getParameterTypes())) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  // Subscriptions of an event class and the recorders of their handlers
+  private static class Dispatch {
+
+    private final Subscription[] targets;
+
+    private Recorder event;
+
+    private Recorder[] handlers = NO_RECORDERS;
+
+    public Dispatch(Subscription[] targets) {
+      this.targets = targets;
+    }
+  }
+
+  private static class Subscription {
+
+    private final WeakReference<Object> listener;
+
+    private final HandlerMethod method;
+
+    public Subscription(WeakReference<Object> listener, HandlerMethod method) {
+      this.listener = listener;
+      this.method = method;
+    }
+  }
+
+  private static class HandlerMethod {
+
+    private final Method method;
+
+    private final Class<?> eventType;
+
+    private final int priority;
+
+    private final boolean rejectSubtypes;
+
+    // Name for statistics, e.g. ItemList.onEvent(ItemEvent)
+    private final String name;
+
+    // Generated invoker, null if the handler is called via reflection
+    private final HandlerInvoker invoker;
+
+    private final int index;
+
+    public HandlerMethod(Method method, Handler handler, HandlerInvoker invoker, int index) {
+      this.method = method;
+      this.invoker = invoker;
+      this.index = index;
+      eventType = method.getParameterTypes()[0];
+      name = method.getDeclaringClass().getSimpleName() + "." + method.getName() + "(" + eventType.getSimpleName()
+          + ")";
+      priority = handler.priority();
+      rejectSubtypes = handler.rejectSubtypes();
+    }
+
+    public boolean accepts(Class<?> eventClass) {
+      return rejectSubtypes ? eventType == eventClass : eventType.isAssignableFrom(eventClass);
+    }
+
+    public void invoke(Object listener, Object[] args) {
+      if (invoker != null) {
+        try {
+          invoker.invoke(index, listener, args[0]);
+        } catch (RuntimeException e) {
+          Gdx.app.error("ERROR", "Handler " + method + " failed.", e);
+        }
+        return;
+      }
+      try {
+        method.invoke(listener, args);
+      } catch (IllegalAccessException e) {
+        Gdx.app.error("ERROR", "Unable to call handler " + method, e);
+      } catch (InvocationTargetException e) {
+        Gdx.app.error("ERROR", "Handler " + method + " failed.", e.getCause());
+      }
+    }
+  }
+}
@@ -26,6 +26,7 @@ import aurelienribon.tweenengine.TweenManager;
 
 import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.Input.Keys;
+import com.badlogic.gdx.InputProcessor;
 import com.badlogic.gdx.graphics.Camera;
 import com.badlogic.gdx.graphics.Color;
 import com.badlogic.gdx.graphics.Pixmap.Format;
@@ -120,14 +121,14 @@ public class UIRenderer implements ShadeArea {
   public void setMode(UIMode mode) {
     switch (mode) {
       case OVERLAY:
-        Gdx.input.setInputProcessor(overlayStage);
+        setInputProcessor(overlayStage);
         if (this.mode != mode) {
           animateFadeIn();
         }
         break;
       case NORMAL:
       default:
-        Gdx.input.setInputProcessor(baseStage);
+        setInputProcessor(baseStage);
         if (this.mode != mode) {
           animateFadeOut();
         }
@@ -136,10 +137,26 @@ public class UIRenderer implements ShadeArea {
     this.mode = mode;
   }
 
+  /**
+   * Removes the input from all stages, e.g. when the screen is left
+   */
+  public void releaseInput() {
+    setInputProcessor(null);
+  }
+
   public UIMode getMode() {
     return mode;
   }
 
+  private void setInputProcessor(InputEventProcessor processor) {
+    // Pending moves of the former processor would be fired stale on its next act
+    InputProcessor current = Gdx.input.getInputProcessor();
+    if (current != processor && current instanceof InputEventProcessor) {
+      ((InputEventProcessor) current).clearPending();
+    }
+    Gdx.input.setInputProcessor(processor);
+  }
+
   public void resize(int width, int height) {
     buffer.dispose();
     buffer = new FrameBuffer(Format.RGBA8888, width, height, false);
@@ -153,7 +170,7 @@ public class UIRenderer implements ShadeArea {
   public void keyEvent(KeyEvent event) {
     int key = event.getKey();
     if (key == Keys.F3 && event.getType() == EventType.KEYDOWN) {
-      Gdx.input.setInputProcessor(cliStage);
+      setInputProcessor(cliStage);
       cli.setVisible(!cli.isVisible());
       if (cli.isVisible()) {
         cli.focus();
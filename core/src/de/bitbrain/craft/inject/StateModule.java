@@ -28,9 +28,12 @@ import com.google.inject.Provides;
 import com.google.inject.name.Names;
 
 import de.bitbrain.craft.CraftGame;
+import de.bitbrain.craft.db.DriverProfile;
 import de.bitbrain.craft.db.DriverProvider;
+import de.bitbrain.craft.db.PreparedQueries;
+import de.bitbrain.craft.db.UnitOfWork;
 import de.bitbrain.craft.events.EventBus;
-import de.bitbrain.craft.events.MBassadorEventBus;
+import de.bitbrain.craft.events.TypedEventBus;
 import de.bitbrain.craft.graphics.IconManager;
 import de.bitbrain.craft.graphics.ParticleRenderer;
 import de.bitbrain.craft.graphics.shader.ShaderManager;
@@ -56,6 +59,16 @@ public class StateModule extends AbstractModule {
 
   private JPersis jpersis;
 
+  private final DriverProfile profile;
+
+  public StateModule() {
+    this(DriverProfile.getDefault());
+  }
+
+  public StateModule(DriverProfile profile) {
+    this.profile = profile;
+  }
+
   /*
    * (non-Javadoc)
    * 
@@ -71,7 +84,7 @@ public class StateModule extends AbstractModule {
     bind(Camera.class).to(OrthographicCamera.class).in(StateScoped.class);
     bind(ShaderManager.class).to(SimpleShaderManager.class).in(StateScoped.class);
     bind(ParticleRenderer.class);
-    bind(EventBus.class).to(MBassadorEventBus.class);
+    bind(EventBus.class).to(TypedEventBus.class);
     bind(DragDropHandler.class);
     bind(IconManager.class);
     bind(TweenManager.class).in(StateScoped.class);
@@ -88,8 +101,23 @@ public class StateModule extends AbstractModule {
   @Provides
   public JPersis provideJPersis() {
     if (jpersis == null) {
+      DriverProvider.setProfile(profile);
+      if (profile.isHeadless()) {
+        // Otherwise the game initializes the driver while loading, since files are not available yet
+        DriverProvider.initialize();
+      }
       jpersis = new JPersis(DriverProvider.getDriver());
     }
     return jpersis;
   }
+
+  @Provides
+  public UnitOfWork provideUnitOfWork() {
+    return DriverProvider.getUnitOfWork();
+  }
+
+  @Provides
+  public PreparedQueries providePreparedQueries() {
+    return DriverProvider.getPreparedQueries();
+  }
 }
\ No newline at end of file
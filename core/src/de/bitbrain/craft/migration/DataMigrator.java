@@ -18,27 +18,28 @@
  */
 package de.bitbrain.craft.migration;
 
-import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Method;
+import java.sql.SQLException;
+import java.util.HashSet;
+import java.util.Set;
 
 import com.badlogic.gdx.Gdx;
 import com.google.inject.Inject;
 
 import de.bitbrain.craft.core.API;
 import de.bitbrain.craft.core.API.APIException;
+import de.bitbrain.craft.db.DatabaseExecutor;
+import de.bitbrain.craft.db.MapperFactory;
 import de.bitbrain.craft.db.MigrationMapper;
+import de.bitbrain.craft.db.PreparedQueries;
+import de.bitbrain.craft.db.UnitOfWork;
 import de.bitbrain.craft.inject.PostConstruct;
-import de.bitbrain.craft.migration.jobs.ItemMigrationJob;
-import de.bitbrain.craft.migration.jobs.ItemSoundMigrationJob;
-import de.bitbrain.craft.migration.jobs.OwnedItemMigrationJob;
-import de.bitbrain.craft.migration.jobs.RecipeMigrationJob;
 import de.bitbrain.craft.models.Migration;
 import de.bitbrain.craft.models.Player;
 import de.bitbrain.craft.models.PlayerUtils;
-import de.bitbrain.jpersis.JPersis;
 
 /**
- * Migrates data at the beginning for new users
+ * Migrates data at the beginning for new users. Each migration is written in a single transaction on the database
+ * thread, a migration is only recorded as applied once it has been written completely.
  * 
  * @author Miguel Gonzalez <miguel-gonzalez@gmx.de>
  * @since 1.0
@@ -50,26 +51,45 @@ public final class DataMigrator {
   private API api;
 
   @Inject
-  private JPersis jpersis;
+  private MapperFactory mappers;
+
+  @Inject
+  private UnitOfWork unitOfWork;
+
+  @Inject
+  private DatabaseExecutor database;
+
+  @Inject
+  private PreparedQueries queries;
 
   private MigrationMapper migrationMapper;
 
-  private Class<?>[] targets;
+  // Migrations which have already been applied for the current player
+  private Set<String> applied;
+
+  private MigrationRegistry registry;
 
   @PostConstruct
   public void initMigrator() {
-    migrationMapper = jpersis.map(MigrationMapper.class);
-    targets = getMigrators();
+    migrationMapper = mappers.map(MigrationMapper.class);
+    registry = new MigrationIndex();
   }
 
   public void migrate() {
-    try {
-      Gdx.app.log("LOAD", "Load game data..");
-      migratePlayer();
-      migrateAll();
-    } catch (APIException e) {
-      Gdx.app.error("ERROR", "Unable to migrate data. " + e.getMessage());
-    }
+    // The API writes on the database thread, a transaction opened on any other thread would block it
+    database.run(new Runnable() {
+      @Override
+      public void run() {
+        try {
+          Gdx.app.log("LOAD", "Load game data..");
+          migratePlayer();
+          migrateAll();
+          api.flush();
+        } catch (APIException e) {
+          Gdx.app.error("ERROR", "Unable to migrate data. " + e.getMessage());
+        }
+      }
+    });
   }
 
   private void migratePlayer() throws APIException {
@@ -84,76 +104,77 @@ public final class DataMigrator {
   }
 
   private void migrateAll() {
-    for (Class<?> c : targets) {
-      Object o = createMigrator(c);
-      Method[] methods = o.getClass().getDeclaredMethods();
-      for (Method m : methods) {
-        if (m.isAnnotationPresent(Migrate.class)) {
-          Migrate migrate = m.getAnnotation(Migrate.class);
-          migrateSingle(c.getName() + "::" + migrate.value(), o, m);
-        }
+    applied = loadMigrations();
+    // Pending changes must not become part of a migration
+    api.flush();
+    for (int i = 0; i < registry.size(); ++i) {
+      if (!migrateSingle(i)) {
+        // Later migrations may depend on this one, they are applied on next start
+        api.invalidate();
+        return;
       }
     }
   }
 
-  private Object createMigrator(Class<?> c) {
-    try {
-      return c.getConstructor().newInstance();
-    } catch (InstantiationException e) {
-      throw new MigrateException(e);
-    } catch (IllegalAccessException e) {
-      throw new MigrateException(e);
-    } catch (IllegalArgumentException e) {
-      throw new MigrateException(e);
-    } catch (InvocationTargetException e) {
-      throw new MigrateException(e);
-    } catch (NoSuchMethodException e) {
-      throw new MigrateException(e);
-    } catch (SecurityException e) {
-      throw new MigrateException(e);
+  private boolean migrateSingle(int index) {
+    String id = registry.getId(index);
+    if (applied.contains(id)) {
+      Gdx.app.log("INFO", "Migration '" + id + "' found.");
+      return true;
     }
-  }
-
-  private void migrateSingle(String id, Object o, Method m) {
-    if (!migrationExists(id)) {
-      Gdx.app.log("INFO", "Migration '" + id + "' Did not happen. Migrate data..");
-      try {
-        m.invoke(o, api);
-      } catch (IllegalAccessException e) {
-        throw new MigrateException(e);
-      } catch (IllegalArgumentException e) {
-        throw new MigrateException(e);
-      } catch (InvocationTargetException e) {
-        throw new MigrateException(e);
+    Gdx.app.log("INFO", "Migration '" + id + "' Did not happen. Migrate data..");
+    long start = System.nanoTime();
+    // Each migration is written at once, together with its owned items and its ledger entry
+    unitOfWork.begin();
+    try {
+      registry.migrate(index, api);
+      // Owned items are written behind, write them within this transaction
+      api.flush();
+      if (!addMigration(id)) {
+        throw new IllegalStateException("Unable to record migration.");
       }
-      addMigration(id);
-      Gdx.app.log("INFO", "Success migrating data for migration '" + id + "'!");
-    } else {
-      Gdx.app.log("INFO", "Migration '" + id + "' found.");
+    } catch (RuntimeException e) {
+      unitOfWork.rollback();
+      Gdx.app.error("ERROR", "Unable to migrate data for migration '" + id + "'.", e);
+      return false;
     }
+    try {
+      // Fails if any part of the migration has been rolled back
+      unitOfWork.commit();
+    } catch (RuntimeException e) {
+      Gdx.app.error("ERROR", "Unable to migrate data for migration '" + id + "'.", e);
+      return false;
+    }
+    applied.add(id);
+    long millis = (System.nanoTime() - start) / 1000000L;
+    Gdx.app.log("INFO", "Success migrating data for migration '" + id + "' in " + millis + "ms!");
+    return true;
   }
 
-  private boolean migrationExists(String migrationId) {
+  private Set<String> loadMigrations() {
     Player p = Player.getCurrent();
-    return migrationMapper.findByPlayerId(p.getId(), migrationId) != null;
+    Set<String> migrations = new HashSet<String>();
+    for (Migration migration : migrationMapper.findAllByPlayerId(p.getId())) {
+      migrations.add(migration.getVersion());
+    }
+    return migrations;
   }
 
-  private void addMigration(String migrationId) {
+  private boolean addMigration(String migrationId) {
     Player p = Player.getCurrent();
-    migrationMapper.insert(new Migration(migrationId, p.getId()));
-  }
-
-  private Class<?>[] getMigrators() {
-    return new Class<?>[] { ItemMigrationJob.class, OwnedItemMigrationJob.class, RecipeMigrationJob.class,
-        ItemSoundMigrationJob.class };
-  }
-
-  private class MigrateException extends RuntimeException {
-
-    private static final long serialVersionUID = 1L;
-
-    public MigrateException(Throwable t) {
-      super(t);
+    String table;
+    try {
+      table = queries.getTable(Migration.class);
+    } catch (SQLException e) {
+      throw new IllegalStateException("Unable to resolve the migration table.", e);
+    }
+    if (table == null) {
+      // Not created yet, the mapper creates it
+      return migrationMapper.insert(new Migration(migrationId, p.getId()));
     }
+    // Joins the transaction of the migration, so the entry is only written together with its data
+    int[] inserted = unitOfWork.executeBatch("INSERT INTO " + table + " (version, player_id) VALUES ('"
+        + migrationId.replace("'", "''") + "', " + p.getId() + ")");
+    return inserted[0] == 1;
   }
 }
@@ -26,7 +26,7 @@ import java.lang.annotation.Retention;
 import java.lang.annotation.Target;
 
 /**
- * Annotates method which should be called after construction
+ * Annotates a migration method. Migrations are registered at compile time, see {@link MigrationRegistry}
  *
  * @author Miguel Gonzalez <miguel-gonzalez@gmx.de>
  * @since 1.0
@@ -36,4 +36,7 @@ import java.lang.annotation.Target;
 @Retention(RUNTIME)
 public @interface Migrate {
   String value();
+
+  // Migrations with a lower order run first
+  int order() default 0;
 }
\ No newline at end of file
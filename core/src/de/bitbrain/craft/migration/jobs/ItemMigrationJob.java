@@ -18,11 +18,15 @@
  */
 package de.bitbrain.craft.migration.jobs;
 
+import java.util.ArrayList;
+import java.util.Collection;
+
 import de.bitbrain.craft.core.API;
 import de.bitbrain.craft.core.ItemId;
 import de.bitbrain.craft.graphics.Icon;
 import de.bitbrain.craft.migration.Migrate;
 import de.bitbrain.craft.migration.Migrations;
+import de.bitbrain.craft.models.Item;
 import de.bitbrain.craft.models.Item.Rarity;
 
 /**
@@ -36,16 +40,24 @@ public class ItemMigrationJob {
 
   @Migrate(Migrations.RELEASE)
   public void migrateItemsRelease(API api) {
-    api.registerItem(ItemId.EARTH, Icon.EARTH, Rarity.COMMON, 0);
-    api.registerItem(ItemId.WATER, Icon.WATER, Rarity.COMMON, 0);
-    api.registerItem(ItemId.AIR, Icon.AIR, Rarity.COMMON, 0);
-    api.registerItem(ItemId.FIRE, Icon.FIRE, Rarity.COMMON, 0);
-    api.registerItem(ItemId.ACID_1, Icon.ACID_1, Rarity.COMMON, 1);
-    api.registerItem(ItemId.ACID_2, Icon.ACID_2, Rarity.COMMON, 2);
-    api.registerItem(ItemId.PHIOLE_1, Icon.PHIOLE_1, Rarity.COMMON, 1);
-    api.registerItem(ItemId.PHIOLE_2, Icon.PHIOLE_2, Rarity.COMMON, 2);
-    api.registerItem(ItemId.MERCURY, Icon.MERCURY, Rarity.COMMON, 1);
-    api.registerItem(ItemId.SULFUR, Icon.SULFUR, Rarity.COMMON, 1);
+    Collection<Item> items = new ArrayList<Item>();
+    items.add(item(ItemId.EARTH, Icon.EARTH, Rarity.COMMON, 0));
+    items.add(item(ItemId.WATER, Icon.WATER, Rarity.COMMON, 0));
+    items.add(item(ItemId.AIR, Icon.AIR, Rarity.COMMON, 0));
+    items.add(item(ItemId.FIRE, Icon.FIRE, Rarity.COMMON, 0));
+    items.add(item(ItemId.ACID_1, Icon.ACID_1, Rarity.COMMON, 1));
+    items.add(item(ItemId.ACID_2, Icon.ACID_2, Rarity.COMMON, 2));
+    items.add(item(ItemId.PHIOLE_1, Icon.PHIOLE_1, Rarity.COMMON, 1));
+    items.add(item(ItemId.PHIOLE_2, Icon.PHIOLE_2, Rarity.COMMON, 2));
+    items.add(item(ItemId.MERCURY, Icon.MERCURY, Rarity.COMMON, 1));
+    items.add(item(ItemId.SULFUR, Icon.SULFUR, Rarity.COMMON, 1));
+    api.registerItems(items);
+  }
+
+  private Item item(ItemId id, Icon icon, Rarity rarity, int level) {
+    Item item = new Item(id, icon, rarity);
+    item.setLevel(level);
+    return item;
   }
 
 }
@@ -31,7 +31,7 @@ import de.bitbrain.craft.migration.Migrations;
  */
 public class ItemSoundMigrationJob {
 
-  @Migrate(Migrations.RELEASE)
+  @Migrate(value = Migrations.RELEASE, order = 3)
   public void migrateItemsRelease(API api) {
 
   }
@@ -18,6 +18,9 @@
  */
 package de.bitbrain.craft.migration.jobs;
 
+import java.util.EnumMap;
+import java.util.Map;
+
 import de.bitbrain.craft.core.API;
 import de.bitbrain.craft.core.ItemId;
 import de.bitbrain.craft.migration.Migrate;
@@ -34,13 +37,15 @@ import de.bitbrain.craft.models.Player;
  */
 public class OwnedItemMigrationJob {
 
-  @Migrate(Migrations.RELEASE)
+  @Migrate(value = Migrations.RELEASE, order = 1)
   public void migrateOwnedItemsRelease(API api) {
     Player p = Player.getCurrent();
-    api.addItem(p.getId(), ItemId.WATER, Item.INFINITE_AMOUNT);
-    api.addItem(p.getId(), ItemId.EARTH, Item.INFINITE_AMOUNT);
-    api.addItem(p.getId(), ItemId.AIR, Item.INFINITE_AMOUNT);
-    api.addItem(p.getId(), ItemId.FIRE, Item.INFINITE_AMOUNT);
+    Map<ItemId, Integer> items = new EnumMap<ItemId, Integer>(ItemId.class);
+    items.put(ItemId.WATER, Item.INFINITE_AMOUNT);
+    items.put(ItemId.EARTH, Item.INFINITE_AMOUNT);
+    items.put(ItemId.AIR, Item.INFINITE_AMOUNT);
+    items.put(ItemId.FIRE, Item.INFINITE_AMOUNT);
+    api.addItems(p.getId(), items);
   }
 
 }
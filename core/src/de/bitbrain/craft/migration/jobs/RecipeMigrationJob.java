@@ -18,9 +18,13 @@
  */
 package de.bitbrain.craft.migration.jobs;
 
+import java.util.ArrayList;
+import java.util.Collection;
+
 import de.bitbrain.craft.core.API;
 import de.bitbrain.craft.core.ItemId;
 import de.bitbrain.craft.core.RecipeDataBuilder;
+import de.bitbrain.craft.core.RecipeDataBuilder.RecipeData;
 import de.bitbrain.craft.migration.Migrate;
 import de.bitbrain.craft.migration.Migrations;
 import de.bitbrain.craft.models.Profession;
@@ -34,31 +38,33 @@ import de.bitbrain.craft.models.Profession;
  */
 public class RecipeMigrationJob {
 
-  @Migrate(Migrations.RELEASE)
+  @Migrate(value = Migrations.RELEASE, order = 2)
   public void migrateRecipesForAlchemist(API api) {
+    Collection<RecipeData> recipes = new ArrayList<RecipeData>();
     // Acid 1
-    api.registerRecipe(new RecipeDataBuilder(ItemId.ACID_1, Profession.ALCHEMIST)
+    recipes.add(new RecipeDataBuilder(ItemId.ACID_1, Profession.ALCHEMIST)
        .addIngredient(ItemId.WATER, 1).addIngredient(ItemId.EARTH, 1)
        .amount(1).build());
     // Acid 2
-    api.registerRecipe(new RecipeDataBuilder(ItemId.ACID_2, Profession.ALCHEMIST)
+    recipes.add(new RecipeDataBuilder(ItemId.ACID_2, Profession.ALCHEMIST)
        .addIngredient(ItemId.WATER, 2).addIngredient(ItemId.EARTH, 2).addIngredient(ItemId.EARTH, 1)
        .amount(1).build());
     // Phiole 1
-    api.registerRecipe(new RecipeDataBuilder(ItemId.PHIOLE_1, Profession.ALCHEMIST)
+    recipes.add(new RecipeDataBuilder(ItemId.PHIOLE_1, Profession.ALCHEMIST)
        .addIngredient(ItemId.EARTH, 1).addIngredient(ItemId.FIRE, 1)
        .amount(5).build());
     // Phiole 2
-    api.registerRecipe(new RecipeDataBuilder(ItemId.PHIOLE_2, Profession.ALCHEMIST)
+    recipes.add(new RecipeDataBuilder(ItemId.PHIOLE_2, Profession.ALCHEMIST)
        .addIngredient(ItemId.EARTH, 2).addIngredient(ItemId.FIRE, 1)
        .amount(5).build());
     // Mercury
-    api.registerRecipe(new RecipeDataBuilder(ItemId.MERCURY, Profession.ALCHEMIST)
+    recipes.add(new RecipeDataBuilder(ItemId.MERCURY, Profession.ALCHEMIST)
        .addIngredient(ItemId.EARTH, 1).addIngredient(ItemId.FIRE, 1).addIngredient(ItemId.PHIOLE_1, 1)
        .amount(1).build());
     // Sulfur
-    api.registerRecipe(new RecipeDataBuilder(ItemId.SULFUR, Profession.ALCHEMIST)
+    recipes.add(new RecipeDataBuilder(ItemId.SULFUR, Profession.ALCHEMIST)
        .addIngredient(ItemId.AIR, 1).addIngredient(ItemId.FIRE, 1)
        .amount(1).build());
+    api.registerRecipes(recipes);
   }
 }
@@ -52,6 +52,10 @@ public class SoundConfig {
     return id;
   }
 
+  public void setId(int id) {
+    this.id = id;
+  }
+
   public String getFile() {
     return file;
   }
@@ -37,6 +37,7 @@ import com.google.inject.Inject;
 
 import de.bitbrain.craft.Assets;
 import de.bitbrain.craft.CraftGame;
+import de.bitbrain.craft.Settings;
 import de.bitbrain.craft.SharedAssetManager;
 import de.bitbrain.craft.Sizes;
 import de.bitbrain.craft.animations.Animator;
@@ -120,6 +121,8 @@ public abstract class AbstractScreen implements Screen, FadeCallback {
       screenShake.shake(15f, 3f);
     }
 
+    // Deliver events of other threads before anything is updated
+    eventBus.dispatchQueuedEvents(Settings.EVENTS_PER_FRAME);
     onUpdate(delta);
     
     animator.act(delta);
@@ -209,7 +212,11 @@ public abstract class AbstractScreen implements Screen, FadeCallback {
   }
 
   public void setScreen(Class<? extends Screen> screen) {
-    Gdx.input.setInputProcessor(null);
+    if (uiRenderer != null) {
+      uiRenderer.releaseInput();
+    } else {
+      Gdx.input.setInputProcessor(null);
+    }
     Gdx.input.setCatchBackKey(true);
     nextScreen = screen;
     eventBus.unsubscribe(this);
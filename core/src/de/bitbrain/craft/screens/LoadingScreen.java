@@ -19,8 +19,6 @@
 
 package de.bitbrain.craft.screens;
 
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
 
 import aurelienribon.tweenengine.Tween;
@@ -46,6 +44,8 @@ import de.bitbrain.craft.animations.FadeableTween;
 import de.bitbrain.craft.animations.FloatValueTween;
 import de.bitbrain.craft.animations.SpriteTween;
 import de.bitbrain.craft.animations.VectorTween;
+import de.bitbrain.craft.core.AsyncAPI;
+import de.bitbrain.craft.db.DatabaseExecutor;
 import de.bitbrain.craft.db.DriverProvider;
 import de.bitbrain.craft.graphics.IconManager;
 import de.bitbrain.craft.graphics.ParticleRenderer;
@@ -67,16 +67,16 @@ public class LoadingScreen extends AbstractScreen {
   @Inject
   private DataMigrator migrator;
 
-  private ExecutorService executor;
+  @Inject
+  private AsyncAPI api;
+
+  @Inject
+  private DatabaseExecutor database;
 
   private Future<?> future;
 
   private AssetReflector reflector;
 
-  public LoadingScreen() {
-    executor = Executors.newFixedThreadPool(5);
-  }
-
   private void registerTweens() {
     Gdx.app.log("INFO", "Registering tweens...");
     Tween.registerAccessor(Sprite.class, new SpriteTween());
@@ -113,7 +113,9 @@ public class LoadingScreen extends AbstractScreen {
   @Override
   protected void onShow() {
     registerTweens();
-    future = executor.submit(new GameLoader());
+    database.submit(new GameLoader());
+    // Runs after the loader on the database thread, so the game is loaded once this is done
+    future = api.preload();
     reflector = new AssetReflector(SharedAssetManager.getInstance());
   }
 
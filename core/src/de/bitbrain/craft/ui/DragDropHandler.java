@@ -42,10 +42,11 @@ import de.bitbrain.craft.audio.SoundManager;
 import de.bitbrain.craft.audio.SoundType;
 import de.bitbrain.craft.audio.SoundUtils;
 import de.bitbrain.craft.core.API;
+import de.bitbrain.craft.core.ItemBag;
 import de.bitbrain.craft.core.ItemId;
-import de.bitbrain.craft.events.Event;
 import de.bitbrain.craft.events.Event.EventType;
 import de.bitbrain.craft.events.EventBus;
+import de.bitbrain.craft.events.ItemBatchEvent;
 import de.bitbrain.craft.events.ItemEvent;
 import de.bitbrain.craft.events.MouseEvent;
 import de.bitbrain.craft.graphics.IconManager;
@@ -73,6 +74,13 @@ public class DragDropHandler {
   // Contains all metadata for icons
   private Map<ItemId, IconMetadata> metadata;
 
+  private final ItemBag.Visitor fadeOutVisitor = new ItemBag.Visitor() {
+    @Override
+    public void visit(Item item, int amount) {
+      fadeOut(item.getId());
+    }
+  };
+
   // Temporary direction variable for target
   private Vector2 target;
 
@@ -159,22 +167,17 @@ public class DragDropHandler {
   }
 
   @Handler
-  public void onEvent(final ItemEvent event) {
+  public void onEvent(ItemEvent event) {
     // ON ITEM REMOVE: Remove it from this handler
     if (event.getType().equals(EventType.REMOVE)) {
-      final IconMetadata data = metadata.get(event.getModel().getId());
-      if (data != null) {
-        tweenManager.killTarget(data);
-        tweenManager.killTarget(data.size);
-        data.frozen = true;
-        Tween.to(data, TweenType.ALPHA.ordinal(), 0.6f).target(0f).ease(TweenEquations.easeOutCubic)
-            .setCallbackTriggers(TweenCallback.COMPLETE).setCallback(new TweenCallback() {
-              @Override
-              public void onEvent(int type, BaseTween<?> source) {
-                remove(event.getModel().getId());
-              }
-            }).start(tweenManager);
-      }
+      fadeOut(event.getModel().getId());
+    }
+  }
+
+  @Handler
+  public void onEvent(ItemBatchEvent event) {
+    if (event.getType().equals(EventType.REMOVE) && !metadata.isEmpty()) {
+      event.getModel().forEach(fadeOutVisitor);
     }
   }
 
@@ -185,8 +188,8 @@ public class DragDropHandler {
 
       if (event.getType() == EventType.MOUSEDRAG) {
         int amount = 1;
-        if (event.hasParam(ItemEvent.AMOUNT)) {
-          amount = (Integer) event.getParam(ItemEvent.AMOUNT);
+        if (event.hasAmount()) {
+          amount = event.getAmount();
         }
         float sourceX = Sizes.worldMouseX();
         float sourceY = getScreenY();
@@ -195,8 +198,10 @@ public class DragDropHandler {
       } else if (event.getType() == EventType.MOUSEDROP) {
         IconMetadata data = metadata.get(item.getId());
         data.drop = true;
-        data.source.x = event.hasParam(Event.SOURCE_X) ? (Float) event.getParam(Event.SOURCE_X) : data.source.x;
-        data.source.y = event.hasParam(Event.SOURCE_Y) ? (Float) event.getParam(Event.SOURCE_Y) : data.source.y;
+        if (event.hasSource()) {
+          data.source.x = event.getSourceX();
+          data.source.y = event.getSourceY();
+        }
         tweenManager.killTarget(data.size);
         animateVector(data.size, 1.7f, 0f, new TweenCallback() {
           @Override
@@ -234,6 +239,22 @@ public class DragDropHandler {
     metadata.put(item.getId(), data);
   }
 
+  private void fadeOut(final ItemId id) {
+    final IconMetadata data = metadata.get(id);
+    if (data != null) {
+      tweenManager.killTarget(data);
+      tweenManager.killTarget(data.size);
+      data.frozen = true;
+      Tween.to(data, TweenType.ALPHA.ordinal(), 0.6f).target(0f).ease(TweenEquations.easeOutCubic)
+          .setCallbackTriggers(TweenCallback.COMPLETE).setCallback(new TweenCallback() {
+            @Override
+            public void onEvent(int type, BaseTween<?> source) {
+              remove(id);
+            }
+          }).start(tweenManager);
+    }
+  }
+
   private void remove(final ItemId id) {
     if (metadata.containsKey(id)) {
       final IconMetadata data = metadata.get(id);
@@ -22,7 +22,6 @@ package de.bitbrain.craft.ui;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.Map.Entry;
 
 import net.engio.mbassy.listener.Handler;
 import aurelienribon.tweenengine.BaseTween;
@@ -41,6 +40,7 @@ import de.bitbrain.craft.core.API;
 import de.bitbrain.craft.core.ItemBag;
 import de.bitbrain.craft.core.ItemId;
 import de.bitbrain.craft.events.EventBus;
+import de.bitbrain.craft.events.ItemBatchEvent;
 import de.bitbrain.craft.events.ItemEvent;
 import de.bitbrain.craft.inject.SharedInjector;
 import de.bitbrain.craft.inject.StateScoped;
@@ -67,6 +67,20 @@ public class ItemList {
 
   private ItemWidgetComparator comparator;
 
+  private final ItemBag.Visitor adder = new ItemBag.Visitor() {
+    @Override
+    public void visit(Item item, int amount) {
+      addElements(item, amount);
+    }
+  };
+
+  private final ItemBag.Visitor remover = new ItemBag.Visitor() {
+    @Override
+    public void visit(Item item, int amount) {
+      removeElements(item, amount);
+    }
+  };
+
   @Inject
   private EventBus eventBus;
 
@@ -83,10 +97,8 @@ public class ItemList {
     items = new HashMap<Actor, Item>();
     comparator = new ItemWidgetComparator();
     eventBus.subscribe(this);
-    ItemBag itemBag = api.getOwnedItems(Player.getCurrent().getId());
-    for (Entry<Item, Integer> entry : itemBag) {
-      addElements(entry.getKey(), entry.getValue());
-    }
+    api.getOwnedItems(Player.getCurrent().getId()).forEach(adder);
+    sort();
   }
 
   @Handler
@@ -94,9 +106,11 @@ public class ItemList {
     switch (message.getType()) {
       case ADD:
         addElements(message.getModel(), message.getAmount());
+        sort();
         break;
       case REMOVE:
         removeElements(message.getModel(), message.getAmount());
+        sort();
         break;
       case UPDATE:
         break;
@@ -106,6 +120,21 @@ public class ItemList {
 
   }
 
+  @Handler
+  public void onEvent(ItemBatchEvent message) {
+    switch (message.getType()) {
+      case ADD:
+        message.getModel().forEach(adder);
+        break;
+      case REMOVE:
+        message.getModel().forEach(remover);
+        break;
+      default:
+        break;
+    }
+    sort();
+  }
+
   public void dispose() {
     widgets.clear();
     group.clear();
@@ -130,10 +159,6 @@ public class ItemList {
           }).start(tweenManager);
       Gdx.app.log("INFO", "Removed element with id='" + item.getId() + "' from " + group);
     }
-
-    group.getChildren().begin();
-    group.getChildren().sort(comparator);
-    group.getChildren().end();
   }
 
   private void addElements(Item item, int amount) {
@@ -149,6 +174,9 @@ public class ItemList {
       panel.setAmount(item, panel.getAmount() + amount);
       Gdx.app.log("INFO", "Updated element with id='" + item.getId() + "' in " + group);
     }
+  }
+
+  private void sort() {
     group.getChildren().begin();
     group.getChildren().sort(comparator);
     group.getChildren().end();
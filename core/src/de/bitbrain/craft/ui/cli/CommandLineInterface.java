@@ -45,6 +45,7 @@ import de.bitbrain.craft.inject.StateScoped;
 import de.bitbrain.craft.ui.cli.commands.AddCommand;
 import de.bitbrain.craft.ui.cli.commands.RemoveCommand;
 import de.bitbrain.craft.ui.cli.commands.SetCommand;
+import de.bitbrain.craft.ui.cli.commands.StatsCommand;
 
 /**
  * UI implementation of a CLI
@@ -194,5 +195,6 @@ public class CommandLineInterface extends Table {
     commandHandler.register("set", new SetCommand());
     commandHandler.register("add", new AddCommand());
     commandHandler.register("remove", new RemoveCommand());
+    commandHandler.register("stats", new StatsCommand());
   }
 }
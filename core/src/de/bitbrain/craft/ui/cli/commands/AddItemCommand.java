@@ -1,8 +1,12 @@
 package de.bitbrain.craft.ui.cli.commands;
 
+import java.util.EnumMap;
+import java.util.Map;
+
 import com.badlogic.gdx.Gdx;
 
 import de.bitbrain.craft.core.API;
+import de.bitbrain.craft.core.ItemBag;
 import de.bitbrain.craft.core.ItemId;
 import de.bitbrain.craft.models.Item;
 import de.bitbrain.craft.models.Player;
@@ -32,14 +36,12 @@ public class AddItemCommand implements Command {
             return;
           }
         }
+        Map<ItemId, Integer> amounts = new EnumMap<ItemId, Integer>(ItemId.class);
         for (ItemId id : ItemId.values()) {
-          Item item = api.addItem(playerId, id, amount);
-          if (item != null) {
-            Gdx.app.log("INFO", "Added successfully " + amount + "x " + id);
-          } else {
-            Gdx.app.log("ERROR", "Item with id " + id + " not found.");
-          }
+          amounts.put(id, amount);
         }
+        ItemBag added = api.addItems(playerId, amounts);
+        Gdx.app.log("INFO", "Added successfully " + amount + "x " + added.size() + " items.");
       }
     } catch (Exception e) {
       Gdx.app.log("ERROR", e.getMessage());
@@ -0,0 +1,25 @@
+package de.bitbrain.craft.ui.cli.commands;
+
+import de.bitbrain.craft.core.API;
+import de.bitbrain.craft.db.MapperMetrics;
+import de.bitbrain.craft.inject.SharedInjector;
+import de.bitbrain.craft.ui.cli.Command;
+
+/**
+ * Writes the latency of all mapper calls to the log. Use 'reset' to start over.
+ * 
+ * @author Miguel Gonzalez
+ *
+ */
+public class DatabaseStatsCommand implements Command {
+
+  @Override
+  public void execute(API api, String... args) {
+    MapperMetrics metrics = SharedInjector.get().getInstance(MapperMetrics.class);
+    if (args.length == 1 && args[0].equals("reset")) {
+      metrics.reset();
+    } else {
+      metrics.dump();
+    }
+  }
+}
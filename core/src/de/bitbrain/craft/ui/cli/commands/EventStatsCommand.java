@@ -0,0 +1,51 @@
+package de.bitbrain.craft.ui.cli.commands;
+
+import java.text.SimpleDateFormat;
+import java.util.Date;
+
+import com.badlogic.gdx.Gdx;
+
+import de.bitbrain.craft.Settings;
+import de.bitbrain.craft.core.API;
+import de.bitbrain.craft.events.EventMetrics;
+import de.bitbrain.craft.inject.SharedInjector;
+import de.bitbrain.craft.ui.cli.Command;
+
+/**
+ * Writes the dispatch time of all events and handlers to the log. Use 'reset' to start over, 'export' to write a
+ * snapshot into the data directory, 'on' or 'off' to switch recording and 'threshold <ms>' to set the time after which
+ * a handler is logged as slow.
+ * 
+ * @author Miguel Gonzalez
+ *
+ */
+public class EventStatsCommand implements Command {
+
+  @Override
+  public void execute(API api, String... args) {
+    EventMetrics metrics = SharedInjector.get().getInstance(EventMetrics.class);
+    if (args.length == 1 && args[0].equals("reset")) {
+      metrics.reset();
+    } else if (args.length == 1 && (args[0].equals("on") || args[0].equals("off"))) {
+      metrics.setEnabled(args[0].equals("on"));
+      Gdx.app.log("INFO", "Event recording is " + args[0] + ".");
+    } else if (args.length == 2 && args[0].equals("threshold")) {
+      try {
+        long millis = Long.parseLong(args[1]);
+        if (millis < 0) {
+          Gdx.app.log("ERROR", "Invalid threshold: " + millis);
+          return;
+        }
+        metrics.setSlowHandlerThreshold(millis);
+        Gdx.app.log("INFO", "Slow handler threshold is " + millis + " ms.");
+      } catch (NumberFormatException e) {
+        Gdx.app.log("ERROR", "Invalid threshold: " + args[1]);
+      }
+    } else if (args.length == 1 && args[0].equals("export")) {
+      String timestamp = new SimpleDateFormat("yyyyMMdd-HHmmss").format(new Date());
+      metrics.export(Gdx.files.external(Settings.DIR_DATA + "event-stats-" + timestamp + ".csv"));
+    } else {
+      metrics.dump();
+    }
+  }
+}
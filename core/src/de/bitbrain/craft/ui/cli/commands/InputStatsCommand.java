@@ -0,0 +1,21 @@
+package de.bitbrain.craft.ui.cli.commands;
+
+import com.badlogic.gdx.Gdx;
+
+import de.bitbrain.craft.core.API;
+import de.bitbrain.craft.events.InputEventProcessor;
+import de.bitbrain.craft.ui.cli.Command;
+
+/**
+ * Writes the number of coalesced mouse events to the log
+ * 
+ * @author Miguel Gonzalez
+ *
+ */
+public class InputStatsCommand implements Command {
+
+  @Override
+  public void execute(API api, String... args) {
+    Gdx.app.log("INFO", "Coalesced mouse move and drag events: " + InputEventProcessor.getCoalescedCount());
+  }
+}
@@ -0,0 +1,19 @@
+package de.bitbrain.craft.ui.cli.commands;
+
+import de.bitbrain.craft.ui.cli.Command;
+import de.bitbrain.craft.ui.cli.CommandHandler;
+
+/**
+ * Implementation of a command which shows statistics
+ * 
+ * @author Miguel Gonzalez
+ *
+ */
+public class StatsCommand extends CommandHandler implements Command {
+
+  public StatsCommand() {
+    register("db", new DatabaseStatsCommand());
+    register("input", new InputStatsCommand());
+    register("events", new EventStatsCommand());
+  }
+}
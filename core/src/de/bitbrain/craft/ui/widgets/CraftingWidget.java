@@ -42,7 +42,6 @@ import de.bitbrain.craft.animations.TweenAnimations.TweenType;
 import de.bitbrain.craft.core.API;
 import de.bitbrain.craft.core.professions.ProfessionLogic;
 import de.bitbrain.craft.events.BasicGestureListener;
-import de.bitbrain.craft.events.Event;
 import de.bitbrain.craft.events.Event.EventType;
 import de.bitbrain.craft.events.EventBus;
 import de.bitbrain.craft.events.GestureManager;
@@ -126,14 +125,14 @@ public class CraftingWidget extends Actor {
       Item item = (Item) event.getModel();
       // Item accepted, remove it from system
       int amount = 1;
-      if (event.hasParam(ItemEvent.AMOUNT)) {
-        amount = (Integer) event.getParam(ItemEvent.AMOUNT);
+      if (event.hasAmount()) {
+        amount = event.getAmount();
       }
       if (collides(event.getMouseX(), event.getMouseY())) {
         professionLogic.add(item, amount);
         api.removeItem(Player.getCurrent().getId(), item.getId(), amount);
         // Check if the element got dropped by this widget
-      } else if (event.hasParam(Event.SENDER) && event.getParam(Event.SENDER).equals(this)) {
+      } else if (event.getSender() == this) {
         api.addItem(Player.getCurrent().getId(), item.getId(), amount);
       }
     }
@@ -145,9 +144,8 @@ public class CraftingWidget extends Actor {
       dragItem = event.getModel();
       dragAmount = event.getAmount();
       MouseEvent<Item> forwardedEvent =
-          new MouseEvent<Item>(EventType.MOUSEDRAG, event.getModel(), Sizes.localMouseX(), Sizes.localMouseY());
-      forwardedEvent.setParam(ItemEvent.ITEM, dragItem);
-      forwardedEvent.setParam(ItemEvent.AMOUNT, dragAmount);
+          MouseEvent.obtain(EventType.MOUSEDRAG, event.getModel(), Sizes.localMouseX(), Sizes.localMouseY());
+      forwardedEvent.setAmount(dragAmount);
       eventBus.fireEvent(forwardedEvent);
     }
   }
@@ -191,12 +189,11 @@ public class CraftingWidget extends Actor {
       @Override
       public void dragStop(InputEvent event, float x, float y, int pointer) {
         MouseEvent<Item> mouseEvent =
-            new MouseEvent<Item>(EventType.MOUSEDROP, dragItem, Sizes.localMouseX(), Sizes.localMouseY());
-        mouseEvent.setParam(Event.SENDER, CraftingWidget.this);
-        mouseEvent.setParam(ItemEvent.AMOUNT, dragAmount);
+            MouseEvent.obtain(EventType.MOUSEDROP, dragItem, Sizes.localMouseX(), Sizes.localMouseY());
+        mouseEvent.setSender(CraftingWidget.this);
+        mouseEvent.setAmount(dragAmount);
         if (!collides(Sizes.localMouseX(), Sizes.localMouseY())) {
-          mouseEvent.setParam(Event.SOURCE_X, 0f);
-          mouseEvent.setParam(Event.SOURCE_Y, 0f);
+          mouseEvent.setSource(0f, 0f);
         }
         eventBus.fireEvent(mouseEvent);
         dragItem = null;
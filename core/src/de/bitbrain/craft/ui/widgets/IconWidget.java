@@ -41,7 +41,6 @@ import de.bitbrain.craft.animations.IntegerValueTween;
 import de.bitbrain.craft.animations.TweenAnimations.TweenType;
 import de.bitbrain.craft.events.Event.EventType;
 import de.bitbrain.craft.events.EventBus;
-import de.bitbrain.craft.events.ItemEvent;
 import de.bitbrain.craft.events.MouseEvent;
 import de.bitbrain.craft.graphics.GraphicsFactory;
 import de.bitbrain.craft.graphics.IconManager;
@@ -248,8 +247,8 @@ public class IconWidget extends Actor implements IntegerValueProvider {
       public void dragStart(InputEvent event, float x, float y, int pointer) {
         if (iconHandle.isDraggable(amount) && (amount == Item.INFINITE_AMOUNT || iconHandle.getDragAmount() <= amount)) {
           MouseEvent<Item> mouseEvent =
-              new MouseEvent<Item>(EventType.MOUSEDRAG, item, Sizes.localMouseX(), Sizes.localMouseY());
-          mouseEvent.setParam(ItemEvent.AMOUNT, iconHandle.getDragAmount());
+              MouseEvent.obtain(EventType.MOUSEDRAG, item, Sizes.localMouseX(), Sizes.localMouseY());
+          mouseEvent.setAmount(iconHandle.getDragAmount());
           eventBus.fireEvent(mouseEvent);
         }
       }
@@ -258,8 +257,8 @@ public class IconWidget extends Actor implements IntegerValueProvider {
       public void dragStop(InputEvent event, float x, float y, int pointer) {
         if (iconHandle.isDraggable(amount) && (amount == Item.INFINITE_AMOUNT || iconHandle.getDragAmount() <= amount)) {
           MouseEvent<Item> mouseEvent =
-              new MouseEvent<Item>(EventType.MOUSEDROP, item, Sizes.localMouseX(), Sizes.localMouseY());
-          mouseEvent.setParam(ItemEvent.AMOUNT, iconHandle.getDragAmount());
+              MouseEvent.obtain(EventType.MOUSEDROP, item, Sizes.localMouseX(), Sizes.localMouseY());
+          mouseEvent.setAmount(iconHandle.getDragAmount());
           eventBus.fireEvent(mouseEvent);
         }
       }
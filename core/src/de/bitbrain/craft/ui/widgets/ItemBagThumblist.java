@@ -32,7 +32,7 @@ public class ItemBagThumblist extends Table {
   }
 
   @Handler
-  private void onCraftEvent(ItemEvent event) {
+  public void onCraftEvent(ItemEvent event) {
     Item item = event.getModel();
     if (event.getType().equals(EventType.CRAFT_SUBMIT)) {
       if (icons.containsKey(item.getId())) {
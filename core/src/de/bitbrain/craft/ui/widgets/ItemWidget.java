@@ -178,7 +178,7 @@ public class ItemWidget extends HorizontalGroup {
       @Override
       public void clicked(InputEvent event, float x, float y) {
         if (craftable) {
-          eventBus.fireEvent(new MouseEvent<Item>(EventType.CLICK, item, x, y));
+          eventBus.fireEvent(MouseEvent.obtain(EventType.CLICK, item, x, y));
         }
       }
       @Override
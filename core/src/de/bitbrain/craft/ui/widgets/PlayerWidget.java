@@ -144,7 +144,7 @@ public class PlayerWidget extends Actor implements Fadeable {
   }
 
   @Handler
-  private void onProgressUpdated(ProgressEvent event) {
+  public void onProgressUpdated(ProgressEvent event) {
     Progress progress = event.getModel();
     if (progress.getProfession().equals(profession)) {
       setProgress(progress);
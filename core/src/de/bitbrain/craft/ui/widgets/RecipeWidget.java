@@ -20,7 +20,6 @@ package de.bitbrain.craft.ui.widgets;
 
 import java.util.HashMap;
 import java.util.Map;
-import java.util.Map.Entry;
 
 import net.engio.mbassy.listener.Handler;
 
@@ -38,9 +37,12 @@ import de.bitbrain.craft.Bundles;
 import de.bitbrain.craft.Sizes;
 import de.bitbrain.craft.Styles;
 import de.bitbrain.craft.core.API;
+import de.bitbrain.craft.core.CraftingPlanner;
 import de.bitbrain.craft.core.ItemBag;
+import de.bitbrain.craft.core.ItemId;
 import de.bitbrain.craft.events.Event.EventType;
 import de.bitbrain.craft.events.EventBus;
+import de.bitbrain.craft.events.ItemBatchEvent;
 import de.bitbrain.craft.events.ItemEvent;
 import de.bitbrain.craft.events.MouseEvent;
 import de.bitbrain.craft.inject.PostConstruct;
@@ -69,8 +71,32 @@ public class RecipeWidget extends Table {
   @Inject
   private API api;
 
+  @Inject
+  private CraftingPlanner planner;
+
   private Map<Item, IconWidget> materialSet;
 
+  // Shows how often the current item can be crafted
+  private Label craftableLabel;
+
+  private ItemId craftableItem;
+
+  private Integer craftableAmount;
+
+  private final ItemBag.Visitor materialAdder = new ItemBag.Visitor() {
+    @Override
+    public void visit(Item item, int amount) {
+      updateAmount(EventType.ADD, item, amount);
+    }
+  };
+
+  private final ItemBag.Visitor materialRemover = new ItemBag.Visitor() {
+    @Override
+    public void visit(Item item, int amount) {
+      updateAmount(EventType.REMOVE, item, amount);
+    }
+  };
+
   @PostConstruct
   public void init() {
     materialSet = new HashMap<Item, IconWidget>();
@@ -91,6 +117,7 @@ public class RecipeWidget extends Table {
             add(generateDescription(item)).fillX().row();
           }
           add(generateMaterials(item)).row();
+          add(generateCraftable(item)).row();
         }
       }
     }
@@ -98,15 +125,34 @@ public class RecipeWidget extends Table {
 
   @Handler
   public void onItemEvent(ItemEvent event) {
-    Item item = event.getModel();
+    updateAmount(event.getType(), event.getModel(), event.getAmount());
+  }
+
+  @Handler
+  public void onItemEvent(ItemBatchEvent event) {
+    if (!materialSet.isEmpty()) {
+      switch (event.getType()) {
+        case ADD:
+          event.getModel().forEach(materialAdder);
+          break;
+        case REMOVE:
+          event.getModel().forEach(materialRemover);
+          break;
+        default:
+          break;
+      }
+    }
+  }
+
+  private void updateAmount(EventType type, Item item, int amount) {
     IconWidget widget = materialSet.get(item);
     if (widget != null) {
-      switch (event.getType()) {
+      switch (type) {
         case ADD:
-          widget.addAmount(event.getAmount());
+          widget.addAmount(amount);
           break;
         case REMOVE:
-          widget.reduceAmount(event.getAmount());
+          widget.reduceAmount(amount);
           break;
         default:
           break;
@@ -114,6 +160,14 @@ public class RecipeWidget extends Table {
     }
   }
 
+  @Override
+  public void act(float delta) {
+    super.act(delta);
+    if (craftableLabel != null) {
+      updateCraftable();
+    }
+  }
+
   private boolean isModified() {
     return false;
   }
@@ -156,28 +210,58 @@ public class RecipeWidget extends Table {
     materialSet.clear();
     Table table = new Table();
     addCaption(Bundles.MATERIALS, table);
-    Table materialTable = new Table();
+    final Table materialTable = new Table();
     table.add(materialTable);
     ItemBag materials = api.findIngredients(item);
     materialTable.setWidth(500f);
-    int index = 0;
-    for (Entry<Item, Integer> entry : materials) {
-      int amount = api.getItemAmount(entry.getKey());
-      IconWidget widget = new IconWidget(entry.getKey(), amount);
-      materialSet.put(entry.getKey(), widget);
-      widget.setHandle(new MaterialIconHandle(entry.getValue()));
-      widget.setWidth(Sizes.MATERIAL_ICON);
-      widget.setHeight(Sizes.MATERIAL_ICON);
-      Tooltip.create(widget).text(Bundles.items.get(entry.getKey().getId().toString()));
-      Cell<IconWidget> cell = materialTable.add(widget);
-      if (index > 0 && index % 2 == 0) {
-        cell.row();
+    materials.forEach(new ItemBag.Visitor() {
+
+      private int index;
+
+      @Override
+      public void visit(Item material, int required) {
+        int amount = api.getItemAmount(material);
+        IconWidget widget = new IconWidget(material, amount);
+        materialSet.put(material, widget);
+        widget.setHandle(new MaterialIconHandle(required));
+        widget.setWidth(Sizes.MATERIAL_ICON);
+        widget.setHeight(Sizes.MATERIAL_ICON);
+        Tooltip.create(widget).text(Bundles.items.get(material.getId().toString()));
+        Cell<IconWidget> cell = materialTable.add(widget);
+        if (index > 0 && index % 2 == 0) {
+          cell.row();
+        }
+        index++;
       }
-      index++;
-    }
+    });
     return table;
   }
 
+  private Actor generateCraftable(Item item) {
+    craftableItem = item.getId();
+    craftableAmount = null;
+    craftableLabel = new Label("", Styles.LBL_BROWN);
+    updateCraftable();
+    Container<Label> container = new Container<Label>(craftableLabel);
+    container.padTop(20f);
+    return container;
+  }
+
+  private void updateCraftable() {
+    // Is cached by the planner until the inventory changes
+    int amount = planner.getCraftableAmount(craftableItem);
+    if (craftableAmount == null || craftableAmount != amount) {
+      craftableAmount = amount;
+      if (amount == Item.INFINITE_AMOUNT) {
+        craftableLabel.setText(Bundles.general.get(Bundles.CRAFTABLE_INFINITE));
+      } else if (amount > 0) {
+        craftableLabel.setText(Bundles.general.format(Bundles.CRAFTABLE_AMOUNT, amount));
+      } else {
+        craftableLabel.setText(Bundles.general.get(Bundles.NOT_CRAFTABLE));
+      }
+    }
+  }
+
   private void addCaption(String key, Table target) {
     Label label = new Label(Bundles.general.get(key), Styles.LBL_CAPTION);
     target.add(label).padTop(55f).padBottom(25f).row();
@@ -0,0 +1,123 @@
+/*
+ * Craft - Crafting game for Android, PC and Browser.
+ * Copyright (C) 2014 Miguel Gonzalez
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+
+package de.bitbrain.craft.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import net.engio.mbassy.listener.Handler;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import com.badlogic.gdx.ApplicationAdapter;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.backends.headless.HeadlessApplication;
+import com.google.inject.Guice;
+import com.google.inject.Injector;
+
+import de.bitbrain.craft.Settings;
+import de.bitbrain.craft.db.DatabaseExecutor;
+import de.bitbrain.craft.db.DriverProvider;
+import de.bitbrain.craft.events.ItemEvent;
+import de.bitbrain.craft.events.StateEventBus;
+import de.bitbrain.craft.events.TypedEventBus;
+import de.bitbrain.craft.migration.DataMigrator;
+import de.bitbrain.craft.models.Player;
+
+/**
+ * Checks that events which the API fires on the database thread reach the subscribers of the render thread
+ *
+ * @author Miguel Gonzalez <miguel-gonzalez@gmx.de>
+ * @since 1.0
+ * @version 1.0
+ */
+public class EventDeliveryTest {
+
+  private API api;
+
+  private DatabaseExecutor database;
+
+  private StateEventBus stateEventBus;
+
+  private int playerId;
+
+  @BeforeClass
+  public static void startApplication() {
+    // The game logs through Gdx.app
+    if (Gdx.app == null) {
+      new HeadlessApplication(new ApplicationAdapter() {
+      });
+    }
+  }
+
+  @Before
+  public void setUp() {
+    DriverProvider.dispose();
+    Injector injector = Guice.createInjector(new HeadlessModule(), new APIModule());
+    injector.getInstance(DataMigrator.class).migrate();
+    api = injector.getInstance(API.class);
+    database = injector.getInstance(DatabaseExecutor.class);
+    stateEventBus = injector.getInstance(StateEventBus.class);
+    playerId = Player.getCurrent().getId();
+  }
+
+  @After
+  public void tearDown() {
+    DriverProvider.dispose();
+  }
+
+  @Test
+  public void eventsOfTheDatabaseThreadAreFiredOnTheRenderThread() throws Exception {
+    // The test thread acts as game thread, which enters a state with its own bus
+    TypedEventBus.bindRenderThread();
+    TypedEventBus renderBus = new TypedEventBus();
+    stateEventBus.bind(renderBus);
+    ItemListener listener = new ItemListener();
+    renderBus.subscribe(listener);
+
+    database.submit(new Runnable() {
+      @Override
+      public void run() {
+        api.addItem(playerId, ItemId.values()[0], 1);
+      }
+    }).get();
+    assertTrue("Event has been fired on the database thread.", listener.threads.isEmpty());
+
+    assertEquals(1, renderBus.dispatchQueuedEvents(Settings.EVENTS_PER_FRAME));
+    assertEquals(Collections.singletonList(Thread.currentThread()), listener.threads);
+  }
+
+  public static class ItemListener {
+
+    private final List<Thread> threads = new CopyOnWriteArrayList<Thread>();
+
+    @Handler
+    public void onEvent(ItemEvent event) {
+      threads.add(Thread.currentThread());
+    }
+  }
+}
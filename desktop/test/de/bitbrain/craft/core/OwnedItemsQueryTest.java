@@ -0,0 +1,117 @@
+/*
+ * Craft - Crafting game for Android, PC and Browser.
+ * Copyright (C) 2014 Miguel Gonzalez
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+
+package de.bitbrain.craft.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import com.badlogic.gdx.ApplicationAdapter;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.backends.headless.HeadlessApplication;
+import com.google.inject.Guice;
+import com.google.inject.Injector;
+
+import de.bitbrain.craft.db.DriverProvider;
+import de.bitbrain.craft.db.MapperMetrics;
+import de.bitbrain.craft.db.MapperStats;
+import de.bitbrain.craft.migration.DataMigrator;
+import de.bitbrain.craft.models.Player;
+
+/**
+ * Checks that loading the inventory runs a constant number of queries, no matter how many items a player owns
+ *
+ * @author Miguel Gonzalez <miguel-gonzalez@gmx.de>
+ * @since 1.0
+ * @version 1.0
+ */
+public class OwnedItemsQueryTest {
+
+  private API api;
+
+  private MapperMetrics metrics;
+
+  private int playerId;
+
+  @BeforeClass
+  public static void startApplication() {
+    // The game logs through Gdx.app
+    if (Gdx.app == null) {
+      new HeadlessApplication(new ApplicationAdapter() {
+      });
+    }
+  }
+
+  @Before
+  public void setUp() {
+    // Closing the connection discards the in-memory database, each test starts empty
+    DriverProvider.dispose();
+    Injector injector = Guice.createInjector(new HeadlessModule(), new APIModule());
+    injector.getInstance(DataMigrator.class).migrate();
+    api = injector.getInstance(API.class);
+    metrics = injector.getInstance(MapperMetrics.class);
+    playerId = Player.getCurrent().getId();
+  }
+
+  @After
+  public void tearDown() {
+    DriverProvider.dispose();
+  }
+
+  @Test
+  public void queryCountDoesNotGrowWithOwnedItems() {
+    long few = countQueries(1);
+    long many = countQueries(ItemId.values().length);
+    assertTrue("Loading the inventory runs no query.", few > 0);
+    assertEquals(few, many);
+  }
+
+  @Test
+  public void ownedItemsAreLoaded() {
+    countQueries(ItemId.values().length);
+    ItemBag bag = api.getOwnedItems(playerId);
+    assertEquals(ItemId.values().length, bag.size());
+    assertEquals(1, bag.getAmount(ItemId.values()[0]));
+  }
+
+  /**
+   * Gives the player the given number of items and counts the queries of loading them from the datastore
+   */
+  private long countQueries(int ownedItems) {
+    api.clearItems(playerId);
+    ItemId[] ids = ItemId.values();
+    for (int i = 0; i < ownedItems; ++i) {
+      api.addItem(playerId, ids[i], 1 + i);
+    }
+    api.flush();
+    api.invalidate();
+    metrics.reset();
+    api.getOwnedItems(playerId);
+    long queries = 0;
+    for (MapperStats stats : metrics.getStats()) {
+      queries += stats.getCount();
+    }
+    return queries;
+  }
+}
@@ -0,0 +1,87 @@
+/*
+ * Craft - Crafting game for Android, PC and Browser.
+ * Copyright (C) 2014 Miguel Gonzalez
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+package de.bitbrain.craft.db;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import de.bitbrain.jpersis.JPersisException;
+
+/**
+ * Checks that batches are written at once and rolled back completely if a statement fails
+ *
+ * @author Miguel Gonzalez <miguel-gonzalez@gmx.de>
+ * @since 1.0
+ * @version 1.0
+ */
+public class UnitOfWorkBatchTest {
+
+  private UnitOfWork unitOfWork;
+
+  @Before
+  public void setUp() {
+    DriverProvider.setProfile(DriverProfile.MEMORY);
+    DriverProvider.initialize();
+    unitOfWork = DriverProvider.getUnitOfWork();
+    unitOfWork.executeBatch("CREATE TABLE batch (id INTEGER PRIMARY KEY, name TEXT NOT NULL)");
+  }
+
+  @After
+  public void tearDown() {
+    DriverProvider.dispose();
+  }
+
+  @Test
+  public void batchReturnsUpdateCounts() {
+    int[] counts = unitOfWork.executeBatch("INSERT INTO batch (name) VALUES ('a')",
+        "INSERT INTO batch (name) VALUES ('b')", "UPDATE batch SET name = 'c'");
+    assertEquals(3, counts.length);
+    assertEquals(1, counts[0]);
+    assertEquals(1, counts[1]);
+    assertEquals(2, counts[2]);
+  }
+
+  @Test
+  public void failedBatchIsRolledBack() {
+    try {
+      unitOfWork.executeBatch("INSERT INTO batch (name) VALUES ('a')", "INSERT INTO batch (name) VALUES (NULL)");
+      fail("Batch with an invalid statement has been written.");
+    } catch (JPersisException e) {
+      // Expected
+    }
+    assertEquals(0, countRows());
+  }
+
+  @Test
+  public void batchJoinsOuterTransaction() {
+    unitOfWork.begin();
+    unitOfWork.executeBatch("INSERT INTO batch (name) VALUES ('a')");
+    unitOfWork.rollback();
+    assertEquals(0, countRows());
+  }
+
+  private int countRows() {
+    // Every row is updated, the update count is the number of rows
+    return unitOfWork.executeBatch("UPDATE batch SET name = name")[0];
+  }
+}
@@ -0,0 +1,191 @@
+/*
+ * Craft - Crafting game for Android, PC and Browser.
+ * Copyright (C) 2014 Miguel Gonzalez
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+
+package de.bitbrain.craft.processor;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Types;
+import javax.tools.Diagnostic.Kind;
+import javax.tools.JavaFileObject;
+
+/**
+ * Generates event handler invokers at compile time. For every class which declares methods annotated with
+ * {@code @Handler} a class {@code <Class>_HandlerInvoker} is generated next to it, which calls the handlers directly.
+ * This way the event bus does not need {@link java.lang.reflect.Method#invoke} when publishing events. Handlers which
+ * can not be called from the same package, e.g. private methods, are left out and still called via reflection.
+ *
+ * @author Miguel Gonzalez <miguel-gonzalez@gmx.de>
+ * @since 1.0
+ * @version 1.0
+ */
+@SupportedAnnotationTypes(HandlerProcessor.HANDLER)
+public class HandlerProcessor extends AbstractProcessor {
+
+  static final String HANDLER = "net.engio.mbassy.listener.Handler";
+
+  static final String INVOKER = "de.bitbrain.craft.events.HandlerInvoker";
+
+  static final String SUFFIX = "_HandlerInvoker";
+
+  @Override
+  public SourceVersion getSupportedSourceVersion() {
+    return SourceVersion.latestSupported();
+  }
+
+  @Override
+  public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+    Map<TypeElement, List<ExecutableElement>> handlers = new LinkedHashMap<TypeElement, List<ExecutableElement>>();
+    for (TypeElement annotation : annotations) {
+      for (ExecutableElement method : ElementFilter.methodsIn(roundEnv.getElementsAnnotatedWith(annotation))) {
+        if (isCallable(method)) {
+          TypeElement type = (TypeElement) method.getEnclosingElement();
+          List<ExecutableElement> methods = handlers.get(type);
+          if (methods == null) {
+            methods = new ArrayList<ExecutableElement>();
+            handlers.put(type, methods);
+          }
+          methods.add(method);
+        }
+      }
+    }
+    for (Map.Entry<TypeElement, List<ExecutableElement>> entry : handlers.entrySet()) {
+      try {
+        write(entry.getKey(), entry.getValue());
+      } catch (IOException e) {
+        processingEnv.getMessager().printMessage(Kind.ERROR,
+            "Unable to write handler invoker: " + e.getMessage(), entry.getKey());
+      }
+    }
+    return false;
+  }
+
+  private boolean isCallable(ExecutableElement method) {
+    Set<Modifier> modifiers = method.getModifiers();
+    if (modifiers.contains(Modifier.PRIVATE) || modifiers.contains(Modifier.STATIC)
+        || method.getParameters().size() != 1) {
+      return false;
+    }
+    TypeKind parameter = method.getParameters().get(0).asType().getKind();
+    if (parameter != TypeKind.DECLARED && parameter != TypeKind.TYPEVAR) {
+      return false;
+    }
+    // Checked exceptions would need to be declared by the invoker
+    Types types = processingEnv.getTypeUtils();
+    TypeMirror runtimeException = processingEnv.getElementUtils().getTypeElement("java.lang.RuntimeException").asType();
+    TypeMirror error = processingEnv.getElementUtils().getTypeElement("java.lang.Error").asType();
+    for (TypeMirror thrown : method.getThrownTypes()) {
+      if (!types.isSubtype(thrown, runtimeException) && !types.isSubtype(thrown, error)) {
+        return false;
+      }
+    }
+    // The invoker lives in the same package, all enclosing classes have to be visible there
+    for (Element current = method.getEnclosingElement(); current.getKind() != ElementKind.PACKAGE; current =
+        current.getEnclosingElement()) {
+      if (!(current.getKind().isClass() || current.getKind().isInterface())) {
+        return false;
+      }
+      TypeElement type = (TypeElement) current;
+      if (type.getModifiers().contains(Modifier.PRIVATE) || type.getNestingKind() == NestingKind.LOCAL
+          || type.getNestingKind() == NestingKind.ANONYMOUS) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private void write(TypeElement type, List<ExecutableElement> methods) throws IOException {
+    Types types = processingEnv.getTypeUtils();
+    PackageElement pkg = processingEnv.getElementUtils().getPackageOf(type);
+    String packageName = pkg.getQualifiedName().toString();
+    String name = flatName(type) + SUFFIX;
+    String qualified = packageName.isEmpty() ? name : packageName + "." + name;
+    String listener = types.erasure(type.asType()).toString();
+    JavaFileObject file = processingEnv.getFiler().createSourceFile(qualified, type);
+    PrintWriter out = new PrintWriter(file.openWriter());
+    try {
+      if (!packageName.isEmpty()) {
+        out.println("package " + packageName + ";");
+        out.println();
+      }
+      out.println("/**");
+      out.println(" * Generated by " + HandlerProcessor.class.getName() + ". Do not edit.");
+      out.println(" */");
+      out.println("@SuppressWarnings({ \"rawtypes\", \"unchecked\" })");
+      out.println("public final class " + name + " implements " + INVOKER + " {");
+      out.println();
+      out.println("  @Override");
+      out.println("  public int indexOf(String method, Class<?> eventType) {");
+      for (int i = 0; i < methods.size(); ++i) {
+        ExecutableElement method = methods.get(i);
+        String event = types.erasure(method.getParameters().get(0).asType()).toString();
+        out.println("    if (\"" + method.getSimpleName() + "\".equals(method) && eventType == " + event + ".class) {");
+        out.println("      return " + i + ";");
+        out.println("    }");
+      }
+      out.println("    return -1;");
+      out.println("  }");
+      out.println();
+      out.println("  @Override");
+      out.println("  public void invoke(int index, Object listener, Object event) {");
+      out.println("    switch (index) {");
+      for (int i = 0; i < methods.size(); ++i) {
+        ExecutableElement method = methods.get(i);
+        String event = types.erasure(method.getParameters().get(0).asType()).toString();
+        out.println("    case " + i + ":");
+        out.println("      ((" + listener + ") listener)." + method.getSimpleName() + "((" + event + ") event);");
+        out.println("      break;");
+      }
+      out.println("    default:");
+      out.println("      throw new IndexOutOfBoundsException(\"No handler at index \" + index);");
+      out.println("    }");
+      out.println("  }");
+      out.println("}");
+    } finally {
+      out.close();
+    }
+  }
+
+  // Outer_Inner for nested classes
+  private static String flatName(TypeElement type) {
+    String name = type.getSimpleName().toString();
+    Element enclosing = type.getEnclosingElement();
+    return enclosing instanceof TypeElement ? flatName((TypeElement) enclosing) + "_" + name : name;
+  }
+}
@@ -0,0 +1,213 @@
+/*
+ * Craft - Crafting game for Android, PC and Browser.
+ * Copyright (C) 2014 Miguel Gonzalez
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+
+package de.bitbrain.craft.processor;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic.Kind;
+import javax.tools.JavaFileObject;
+
+/**
+ * Generates the migration index at compile time. Every method annotated with {@code @Migrate} is registered within
+ * {@code de.bitbrain.craft.migration.MigrationIndex}, which calls the migrations directly. This way the game does not
+ * need to scan the migration jobs via reflection at startup.
+ *
+ * @author Miguel Gonzalez <miguel-gonzalez@gmx.de>
+ * @since 1.0
+ * @version 1.0
+ */
+@SupportedAnnotationTypes(MigrationProcessor.MIGRATE)
+public class MigrationProcessor extends AbstractProcessor {
+
+  static final String MIGRATE = "de.bitbrain.craft.migration.Migrate";
+
+  static final String PACKAGE = "de.bitbrain.craft.migration";
+
+  static final String INDEX = "MigrationIndex";
+
+  static final String API = "de.bitbrain.craft.core.API";
+
+  private boolean generated;
+
+  @Override
+  public SourceVersion getSupportedSourceVersion() {
+    return SourceVersion.latestSupported();
+  }
+
+  @Override
+  public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+    if (generated || annotations.isEmpty()) {
+      return false;
+    }
+    List<Entry> entries = new ArrayList<Entry>();
+    for (TypeElement annotation : annotations) {
+      for (ExecutableElement method : ElementFilter.methodsIn(roundEnv.getElementsAnnotatedWith(annotation))) {
+        Entry entry = createEntry(method);
+        if (entry != null) {
+          entries.add(entry);
+        }
+      }
+    }
+    Collections.sort(entries, new Comparator<Entry>() {
+      @Override
+      public int compare(Entry a, Entry b) {
+        if (a.order != b.order) {
+          return a.order < b.order ? -1 : 1;
+        }
+        return a.id.compareTo(b.id);
+      }
+    });
+    try {
+      write(entries);
+      generated = true;
+    } catch (IOException e) {
+      processingEnv.getMessager().printMessage(Kind.ERROR, "Unable to write migration index: " + e.getMessage());
+    }
+    return true;
+  }
+
+  private Entry createEntry(ExecutableElement method) {
+    Element type = method.getEnclosingElement();
+    if (type.getKind() != ElementKind.CLASS || !type.getModifiers().contains(Modifier.PUBLIC)
+        || type.getModifiers().contains(Modifier.ABSTRACT)) {
+      return error(method, "Migrations have to be declared in a public, non-abstract class");
+    }
+    if (!method.getModifiers().contains(Modifier.PUBLIC) || method.getModifiers().contains(Modifier.STATIC)) {
+      return error(method, "Migrations have to be public instance methods");
+    }
+    if (method.getParameters().size() != 1 || !method.getParameters().get(0).asType().toString().equals(API)) {
+      return error(method, "Migrations have to accept exactly one parameter of type " + API);
+    }
+    boolean constructor = false;
+    for (ExecutableElement c : ElementFilter.constructorsIn(type.getEnclosedElements())) {
+      if (c.getParameters().isEmpty() && c.getModifiers().contains(Modifier.PUBLIC)) {
+        constructor = true;
+      }
+    }
+    if (!constructor) {
+      return error(method, "Migration jobs need a public default constructor");
+    }
+    Entry entry = new Entry();
+    entry.type = ((TypeElement) type).getQualifiedName().toString();
+    entry.method = method.getSimpleName().toString();
+    for (AnnotationMirror mirror : method.getAnnotationMirrors()) {
+      if (((TypeElement) mirror.getAnnotationType().asElement()).getQualifiedName().contentEquals(MIGRATE)) {
+        for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> value : processingEnv
+            .getElementUtils().getElementValuesWithDefaults(mirror).entrySet()) {
+          String name = value.getKey().getSimpleName().toString();
+          if (name.equals("value")) {
+            // Same id as used by the former reflection based migrator
+            entry.id = entry.type + "::" + value.getValue().getValue();
+          } else if (name.equals("order")) {
+            entry.order = (Integer) value.getValue().getValue();
+          }
+        }
+      }
+    }
+    return entry;
+  }
+
+  private Entry error(Element element, String message) {
+    processingEnv.getMessager().printMessage(Kind.ERROR, message, element);
+    return null;
+  }
+
+  private void write(List<Entry> entries) throws IOException {
+    JavaFileObject file = processingEnv.getFiler().createSourceFile(PACKAGE + "." + INDEX);
+    PrintWriter out = new PrintWriter(file.openWriter());
+    try {
+      out.println("package " + PACKAGE + ";");
+      out.println();
+      out.println("import " + API + ";");
+      out.println();
+      out.println("/**");
+      out.println(" * Generated by " + MigrationProcessor.class.getName() + ". Do not edit.");
+      out.println(" */");
+      out.println("public final class " + INDEX + " implements MigrationRegistry {");
+      out.println();
+      out.println("  private static final String[] IDS = {");
+      for (Entry entry : entries) {
+        out.println("    \"" + escape(entry.id) + "\",");
+      }
+      out.println("  };");
+      out.println();
+      out.println("  @Override");
+      out.println("  public int size() {");
+      out.println("    return IDS.length;");
+      out.println("  }");
+      out.println();
+      out.println("  @Override");
+      out.println("  public String getId(int index) {");
+      out.println("    return IDS[index];");
+      out.println("  }");
+      out.println();
+      out.println("  @Override");
+      out.println("  public void migrate(int index, API api) {");
+      out.println("    switch (index) {");
+      for (int i = 0; i < entries.size(); ++i) {
+        Entry entry = entries.get(i);
+        out.println("    case " + i + ":");
+        out.println("      new " + entry.type + "()." + entry.method + "(api);");
+        out.println("      break;");
+      }
+      out.println("    default:");
+      out.println("      throw new IndexOutOfBoundsException(\"No migration at index \" + index);");
+      out.println("    }");
+      out.println("  }");
+      out.println("}");
+    } finally {
+      out.close();
+    }
+  }
+
+  private static String escape(String value) {
+    return value.replace("\\", "\\\\").replace("\"", "\\\"");
+  }
+
+  private static class Entry {
+
+    String id;
+
+    String type;
+
+    String method;
+
+    int order;
+  }
+}